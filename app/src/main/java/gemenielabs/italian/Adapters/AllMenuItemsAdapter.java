@@ -8,26 +8,74 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import gemenielabs.italian.MainActivity;
+import java.util.List;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Data.NutritionTable;
+import gemenielabs.italian.Images.MenuImageLoader;
 import gemenielabs.italian.NutritionInfoActivity;
 import gemenielabs.italian.OrderActivity;
 import gemenielabs.italian.R;
 
-public class AllMenuItemsAdapter extends RecyclerView.Adapter<AllMenuItemsAdapter.ViewHolder> {
+public class AllMenuItemsAdapter extends ListAdapter<MenuItem, AllMenuItemsAdapter.ViewHolder> {
 
     int mId;
     Context mContext;
     public static final String ID = "id";
-    public static final String TITLE = "title";
-    public static final String DESCRIPTION = "description";
-    public static final String IMAGE = "image";
-    public static final String POSITION = "position";
+    public static final String ITEM_ID = "item_id";
 
-    public AllMenuItemsAdapter(int id, Context context) {
+    // Catalog items are immutable, so an item with the same id is the same row
+    private static final DiffUtil.ItemCallback<MenuItem> DIFF = new DiffUtil.ItemCallback<MenuItem>() {
+        @Override
+        public boolean areItemsTheSame(MenuItem oldItem, MenuItem newItem) {
+            return oldItem.id == newItem.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(MenuItem oldItem, MenuItem newItem) {
+            return oldItem == newItem;
+        }
+    };
+
+    // Row nutrition text by catalog index, null where the item has no nutrition record
+    private static CharSequence[] nutritionLines;
+
+    public AllMenuItemsAdapter(int id, Context context, List<MenuItem> items) {
+        super(DIFF);
         mId = id;
         mContext = context;
+        buildNutritionLines(context);
+        submitList(items);
+    }
+
+    // Formatted once for the whole catalog, so binding a row only hands over a reference
+    private static void buildNutritionLines(Context context) {
+        if (nutritionLines != null) {
+            return;
+        }
+        MenuCatalog catalog = MenuCatalog.get(context);
+        NutritionTable table = catalog.getNutritionTable();
+        CharSequence[] lines = new CharSequence[catalog.size()];
+        for (int index = 0; index < lines.length; index++) {
+            int row = catalog.getItem(index).nutritionRow;
+            // Records without calories are placeholders, the nutrition screen skips them too
+            if (row != NutritionTable.NOT_FOUND && table.get(row, NutritionTable.CALORIES) > 0) {
+                lines[index] = context.getString(R.string.row_nutrition,
+                        table.format(row, NutritionTable.CALORIES), table.format(row, NutritionTable.PROTEIN));
+            }
+        }
+        nutritionLines = lines;
+    }
+
+    // The diff runs off the main thread, onCommitted runs once the new rows are in place
+    public void submitCategory(int id, List<MenuItem> items, Runnable onCommitted) {
+        mId = id;
+        submitList(items, onCommitted);
     }
 
     @Override
@@ -39,16 +87,21 @@ public class AllMenuItemsAdapter extends RecyclerView.Adapter<AllMenuItemsAdapte
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        holder.titleOfItem.setText((String) MainActivity.titleList.get(position));
-        holder.descriptionOfItem.setText((String) MainActivity.descriptionList.get(position));
-        holder.imageOfItem.setImageResource(MainActivity.imageList.get(position));
+        MenuItem item = getItem(position);
+        holder.titleOfItem.setText(item.title);
+        holder.descriptionOfItem.setText(item.description);
+        CharSequence nutrition = nutritionLines[item.index];
+        holder.nutritionOfItem.setText(nutrition);
+        holder.nutritionOfItem.setVisibility(nutrition == null ? View.GONE : View.VISIBLE);
+        MenuImageLoader.loadThumbnail(holder.imageOfItem, item.thumbnail);
         holder.seperateImage.setImageResource(android.R.drawable.button_onoff_indicator_off);
         holder.itemView.setTag("101");
     }
 
+    // A row scrolled off screen no longer needs its photo, so stop decoding it
     @Override
-    public int getItemCount() {
-            return MainActivity.titleList.size();
+    public void onViewRecycled(ViewHolder holder) {
+        MenuImageLoader.cancel(holder.imageOfItem);
     }
 
     class ViewHolder extends RecyclerView.ViewHolder
@@ -56,6 +109,7 @@ public class AllMenuItemsAdapter extends RecyclerView.Adapter<AllMenuItemsAdapte
 
         TextView titleOfItem;
         TextView descriptionOfItem;
+        TextView nutritionOfItem;
         TextView orderNow;
         ImageView imageOfItem;
         ImageView seperateImage;
@@ -64,6 +118,7 @@ public class AllMenuItemsAdapter extends RecyclerView.Adapter<AllMenuItemsAdapte
             super(itemView);
             titleOfItem = itemView.findViewById(R.id.title_item);
             descriptionOfItem = itemView.findViewById(R.id.description_item);
+            nutritionOfItem = itemView.findViewById(R.id.nutrition_item);
             imageOfItem =  itemView.findViewById(R.id.image_item);
             orderNow = itemView.findViewById(R.id.order_now);
             seperateImage = itemView.findViewById(R.id.imageView2);
@@ -74,23 +129,18 @@ public class AllMenuItemsAdapter extends RecyclerView.Adapter<AllMenuItemsAdapte
         @Override
         public void onClick(View v) {
             int clickedPosition = getAdapterPosition();
+            if (clickedPosition == RecyclerView.NO_POSITION) {
+                return;
+            }
+            MenuItem item = getItem(clickedPosition);
             Intent intent;
-            if(v.getTag().equals("100")){
+            if (v.getTag().equals("100") && item.isOrderable()) {
                 intent = new Intent(mContext, OrderActivity.class);
-                if(mId == R.id.deserts_menu && clickedPosition == 4) {
-                    intent = new Intent(mContext, NutritionInfoActivity.class);
-                }
             } else {
                 intent = new Intent(mContext, NutritionInfoActivity.class);
             }
-            if(mId == R.id.pizza_menu && clickedPosition == 22){
-                mId = R.string.action_calzones;
-            }
             intent.putExtra(ID, mId);
-            intent.putExtra(POSITION, clickedPosition);
-            intent.putExtra(TITLE, (String) MainActivity.titleList.get(clickedPosition));
-            intent.putExtra(DESCRIPTION, (String) MainActivity.descriptionList.get(clickedPosition));
-            intent.putExtra(IMAGE, MainActivity.imageList.get(clickedPosition));
+            intent.putExtra(ITEM_ID, item.id);
             mContext.startActivity(intent);
         }
     }
@@ -3,24 +3,32 @@ package gemenielabs.italian.Adapters;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
+import java.util.List;
 
+import gemenielabs.italian.Order.Cart;
+import gemenielabs.italian.Order.CartLine;
 import gemenielabs.italian.R;
 
 
 public class OrderSummaryAdapter extends RecyclerView.Adapter<OrderSummaryAdapter.OrderHolder> {
 
+    // Payload for a change to a line's quantity only
+    public static final Object QUANTITY = new Object();
+
     public ListViewClickListener mListener;
-    public ArrayList<String> mItemList;
+    public List<CartLine> mItemList;
+    private final CartLine.Labels labels;
 
-    public OrderSummaryAdapter(ListViewClickListener listener, ArrayList<String> itemList) {
+    public OrderSummaryAdapter(ListViewClickListener listener, List<CartLine> itemList, CartLine.Labels labels) {
         mListener = listener;
         mItemList = itemList;
+        this.labels = labels;
     }
 
     @Override
@@ -32,8 +40,25 @@ public class OrderSummaryAdapter extends RecyclerView.Adapter<OrderSummaryAdapte
 
     @Override
     public void onBindViewHolder(OrderHolder holder, int position) {
-        holder.textview.setText(mItemList.get(position));
+        CartLine line = mItemList.get(position);
+        holder.textview.setText(line.getDisplay(labels));
         holder.imageView.setImageResource(android.R.drawable.button_onoff_indicator_off);
+        bindQuantity(holder, line);
+    }
+
+    @Override
+    public void onBindViewHolder(OrderHolder holder, int position, List<Object> payloads) {
+        if (!payloads.contains(QUANTITY)) {
+            onBindViewHolder(holder, position);
+        } else {
+            bindQuantity(holder, mItemList.get(position));
+        }
+    }
+
+    private void bindQuantity(OrderHolder holder, CartLine line) {
+        holder.quantity.setText(String.valueOf(line.getQuantity()));
+        holder.decrease.setEnabled(line.getQuantity() > 1);
+        holder.increase.setEnabled(line.getQuantity() < Cart.MAX_QUANTITY);
     }
 
     @Override
@@ -43,25 +68,45 @@ public class OrderSummaryAdapter extends RecyclerView.Adapter<OrderSummaryAdapte
 
     public interface ListViewClickListener{
         void onListItemClicked(int clickedPosition);
+
+        // The stepper beside a line, delta is 1 or -1
+        void onQuantityStepped(int position, int delta);
     }
 
     class OrderHolder extends RecyclerView.ViewHolder
     implements View.OnClickListener{
         TextView textview;
         ImageView imageView;
+        TextView quantity;
+        Button decrease;
+        Button increase;
 
         public OrderHolder(View itemView) {
             super(itemView);
             textview = itemView.findViewById(R.id.order_summary_text_view);
             imageView = itemView.findViewById(R.id.imageView3);
+            quantity = itemView.findViewById(R.id.line_quantity);
+            decrease = itemView.findViewById(R.id.quantity_decrease);
+            increase = itemView.findViewById(R.id.quantity_increase);
             itemView.setOnClickListener(this);
+            decrease.setOnClickListener(this);
+            increase.setOnClickListener(this);
         }
 
 
         @Override
         public void onClick(View v) {
             int clicked = getAdapterPosition();
-            mListener.onListItemClicked(clicked);
+            if (clicked == RecyclerView.NO_POSITION) {
+                return;
+            }
+            if (v == decrease) {
+                mListener.onQuantityStepped(clicked, -1);
+            } else if (v == increase) {
+                mListener.onQuantityStepped(clicked, 1);
+            } else {
+                mListener.onListItemClicked(clicked);
+            }
         }
     }
 }
@@ -2,6 +2,7 @@ package gemenielabs.italian.Adapters;
 
 import android.content.Context;
 import android.util.Log;
+import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,27 +13,39 @@ import android.widget.TextView;
 
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
-
-import gemenielabs.italian.OrderActivity;
+import gemenielabs.italian.Order.OrderLine;
 import gemenielabs.italian.R;
 
-import static java.lang.Boolean.TRUE;
-
 public class SpinnerAdapter extends RecyclerView.Adapter<SpinnerAdapter.ViewHolder> {
     public Context mContext;
     public ItemSelectedListener mItemSelectedListener;
-    public ArrayList<Integer> spinnerADDNO;
-    public int[] spinnerP;
-    public int mPosition;
-
-    public SpinnerAdapter(ItemSelectedListener listener, Context context, ArrayList<Integer> spinner,
-                          int[] spinnerPosition, int position) {
+    public OrderLine mOrderLine;
+    // Row kind to the string-array of choices and the label shown above the spinner
+    private final int[] rowOptions = new int[OrderLine.KIND_COUNT];
+    private final int[] rowLabels = new int[OrderLine.KIND_COUNT];
+    // One adapter per string-array, shared by every row that offers the same choices
+    private final SparseArray<ArrayAdapter<CharSequence>> optionAdapters = new SparseArray<>();
+
+    public SpinnerAdapter(ItemSelectedListener listener, Context context, OrderLine orderLine) {
         mContext = context;
         mItemSelectedListener = listener;
-        spinnerADDNO = spinner;
-        spinnerP = spinnerPosition;
-        mPosition = position;
+        mOrderLine = orderLine;
+
+        rowOptions[OrderLine.SIZE] = orderLine.item.sizeOptions;
+        rowOptions[OrderLine.CRUST] = R.array.crust_array;
+        rowOptions[OrderLine.ADD] = R.array.toppings_array;
+        rowOptions[OrderLine.NO] = R.array.toppings_array;
+        rowOptions[OrderLine.STUFFING] = R.array.toppings_array;
+        rowOptions[OrderLine.LEFT] = R.array.half_toppings_array;
+        rowOptions[OrderLine.RIGHT] = R.array.half_toppings_array;
+
+        rowLabels[OrderLine.SIZE] = R.string.order_SIZE;
+        rowLabels[OrderLine.CRUST] = R.string.order_CRUST;
+        rowLabels[OrderLine.ADD] = R.string.order_TOPPINGS;
+        rowLabels[OrderLine.NO] = R.string.order_TOPPINGS;
+        rowLabels[OrderLine.STUFFING] = R.string.order_TOPPINGS;
+        rowLabels[OrderLine.LEFT] = R.string.pizza_left;
+        rowLabels[OrderLine.RIGHT] = R.string.pizza_right;
     }
 
     @Override
@@ -45,64 +58,29 @@ public class SpinnerAdapter extends RecyclerView.Adapter<SpinnerAdapter.ViewHold
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
         Log.i("TAG: onBindViewHolder", "START");
-        int resource = spinnerADDNO.get(position);
-        int resId = R.array.appetizer_size_medium;
-        Log.i("TAG: resource", String.valueOf(resource));
-
-        // Determine resource and text for the spinner based on the resource value
-        if (resource == R.string.action_calzones) {
-            resId = R.array.appetizer_size_medium;
-            holder.textView.setText(mContext.getResources().getString(R.string.order_SIZE));
-        } else if (resource == R.id.pizza_menu) {
-            if (position == 0) {
-                resId = R.array.size_array;
-                holder.textView.setText(mContext.getResources().getString(R.string.order_SIZE));
-            } else {
-                resId = R.array.crust_array;
-                resource = R.string.order_CRUST;
-                holder.spinner.setTag(resource);
-                holder.textView.setText(mContext.getResources().getString(R.string.order_CRUST));
-            }
-        } else if (resource == R.id.appetizers_menu) {
-            if (mPosition == 0 || mPosition == 5 || mPosition == 6) {
-                resId = R.array.appetizer_size_large;
-            } else if (mPosition == 1 || mPosition == 2 || mPosition == 3 || mPosition == 7 || mPosition == 8) {
-                resId = R.array.appetizer_size_medium;
-            } else {
-                resId = R.array.appetizer_size_small;
-            }
-            holder.spinner.setTag(resId);
-        } else if (resource == R.id.pastas_menu) {
-            resId = R.array.pasta_size_array;
-        } else if (resource == R.id.salads_menu) {
-            resId = R.array.appetizer_size_medium;
-        } else if (resource == R.id.deserts_menu) {
-            resId = R.array.desert_size_array;
-            if (mPosition == 3) {
-                resId = R.array.appetizer_size_small;
-            }
-        } else if (resource == R.string.order_ADD || resource == R.string.order_NO ||
-                resource == R.string.order_STUFFING) {
-            resId = R.array.toppings_array;
-            holder.spinner.setTag(resource);
-            holder.textView.setText(mContext.getResources().getString(R.string.order_TOPPINGS));
-        } else if (resource == R.id.sandwiches_menu) {
-            return;
-        } else if (resource == R.string.pizza_left || resource == R.string.pizza_right) {
-            holder.textView.setText(resource);
-            resId = R.array.half_toppings_array;
+        int kind = mOrderLine.getKind(position);
+        int resId = rowOptions[kind];
+        holder.textView.setText(rowLabels[kind]);
+        holder.spinner.setTag(kind);
+
+        ArrayAdapter<CharSequence> adapter = getOptionAdapter(resId);
+        if (holder.spinner.getAdapter() != adapter) {
+            holder.spinner.setAdapter(adapter);
         }
 
-        holder.spinner.setTag(resource);
-
-        // Create ArrayAdapter and set it to the spinner
-        ArrayAdapter<CharSequence> adapter = ArrayAdapter.createFromResource(mContext, resId,
-                android.R.layout.simple_spinner_item);
-        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-        holder.spinner.setAdapter(adapter);
-
         Log.i("TAG: BIND ", holder.textView.getText().toString());
-        holder.spinner.setSelection(spinnerP[position]);
+        // A new row shows the first choice, its spinner reports it once bound
+        holder.spinner.setSelection(Math.max(0, mOrderLine.getSelection(position)));
+    }
+
+    private ArrayAdapter<CharSequence> getOptionAdapter(int resId) {
+        ArrayAdapter<CharSequence> adapter = optionAdapters.get(resId);
+        if (adapter == null) {
+            adapter = ArrayAdapter.createFromResource(mContext, resId, android.R.layout.simple_spinner_item);
+            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+            optionAdapters.put(resId, adapter);
+        }
+        return adapter;
     }
 
     public interface ItemSelectedListener {
@@ -111,7 +89,7 @@ public class SpinnerAdapter extends RecyclerView.Adapter<SpinnerAdapter.ViewHold
 
     @Override
     public int getItemCount() {
-        return spinnerADDNO.size();
+        return mOrderLine.getRowCount();
     }
 
     class ViewHolder extends RecyclerView.ViewHolder implements AdapterView.OnItemSelectedListener {
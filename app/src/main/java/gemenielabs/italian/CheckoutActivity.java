@@ -7,6 +7,7 @@ import android.content.pm.PackageManager;
 import android.location.Location;
 import android.os.Bundle;
 import android.util.Log;
+import android.util.SparseArray;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
@@ -22,30 +23,53 @@ import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.tasks.OnSuccessListener;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
 
 import gemenielabs.italian.Adapters.AllMenuItemsAdapter;
 import gemenielabs.italian.Adapters.OrderSummaryAdapter;
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.NutritionHistory;
+import gemenielabs.italian.Data.NutritionTable;
+import gemenielabs.italian.Order.Cart;
+import gemenielabs.italian.Order.CartAutosave;
+import gemenielabs.italian.Order.CartLine;
+import gemenielabs.italian.Order.CartStore;
+import gemenielabs.italian.Order.OrderLine;
 
 
 public class CheckoutActivity extends Activity implements OrderSummaryAdapter.ListViewClickListener {
 
-    SharedPreferences sharedPreferences;
     OrderSummaryAdapter myadapter;
-    private final ArrayList<String> itemList = new ArrayList<>();
-    private final ArrayList<Integer> costList = new ArrayList<>();
-    private String comment;
-    private String item;
-    private String listItem;
+    private CartAutosave autosave;
+    private final Cart cart = new Cart();
+    private NutritionHistory nutritionHistory;
+    private TextView cartNutrition;
+    private TextView historyNutrition;
     private TextView total;
-    private int cost;
 
     public static final String StartMapFromCheckOut = "StartMapFromCheckOut";
     private static final int StartMapFromCheckOutID = 9001;
-    public static final String ITEM_STRING = "item_strings";
-    public static final String ITEM_COST = "item_cost";
-    public static final String NUMBER_OF_ITEMS = "number_of_items";
+    private static final int WEEK_DAYS = 7;
+    private static final int MONTH_DAYS = 30;
+    // Day and checksum of the cart last counted toward the history, kept across launches
+    private static final String CHECKOUT = "checkout";
+    private static final String RECORDED_CART = "recorded_cart";
+    // Where carts were kept, one display string per line, before the CartStore file
+    private static final String LEGACY_PREFERENCES = "prototype.prototype.gambinos";
+    private static final String LEGACY_COUNT = "number_of_items";
+    private static final String LEGACY_COST = "item_cost";
+    private static final String LEGACY_TEXT = "item_strings";
+    private static final String LEGACY_NUTRITION = "item_nutrition";
+    // History writes sync the file, so they stay off the main thread and in order
+    private static final ExecutorService HISTORY_WRITER = Executors.newSingleThreadExecutor();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -55,94 +79,173 @@ public class CheckoutActivity extends Activity implements OrderSummaryAdapter.Li
         // Retrieve intent data and find views
         Intent intent = getIntent();
         total = findViewById(R.id.summary_total);
+        cartNutrition = findViewById(R.id.cart_nutrition);
+        historyNutrition = findViewById(R.id.nutrition_history);
+        nutritionHistory = new NutritionHistory(new File(getFilesDir(), NutritionHistory.FILE));
 
         // Set click listeners for buttons
         findViewById(R.id.clear_list_button).setOnClickListener(this::clearList);
         findViewById(R.id.checkout_order_button).setOnClickListener(this::startDeliveryCarryOut);
 
-        // Retrieve data from SharedPreferences
-        sharedPreferences = this.getSharedPreferences("prototype.prototype.gambinos", MODE_PRIVATE);
-        int itemNumber = sharedPreferences.getInt(NUMBER_OF_ITEMS, 0);
-        for (int i = 0; i < itemNumber ; i++) {
-            costList.add(sharedPreferences.getInt(ITEM_COST + i, 0));
-            itemList.add(sharedPreferences.getString(ITEM_STRING + i, ""));
-        }
+        // Retrieve the saved cart
+        autosave = CartAutosave.get(new File(getFilesDir(), CartStore.FILE));
+        loadLists();
 
-        // Check if intent has extra data
-        if (intent.hasExtra(OrderActivity.COMMENTS)) {
-            if (intent.getStringExtra(OrderActivity.COMMENTS).length() > 1) {
-                comment = intent.getStringExtra(OrderActivity.COMMENTS);
+        // A line from the order screen, added once and not again when the activity is recreated
+        if (savedInstanceState == null && intent.hasExtra(OrderActivity.CART_LINE)) {
+            try {
+                if (cart.add(CartLine.fromBytes(intent.getByteArrayExtra(OrderActivity.CART_LINE))) == Cart.NOT_ADDED) {
+                    Toast.makeText(this, getString(R.string.cart_quantity_limit, Cart.MAX_QUANTITY), Toast.LENGTH_SHORT).show();
+                } else {
+                    // A recreated activity won't add it again, so it goes to disk now
+                    saveLists();
+                }
+            } catch (IOException e) {
+                Log.w("TAG", "cart line", e);
             }
-            listItem = intent.getStringExtra(AllMenuItemsAdapter.TITLE);
-            item = intent.getStringExtra(OrderActivity.ITEM_ORDER);
-            cost = intent.getIntExtra(OrderActivity.ITEM_COST, 0);
-            costList.add(cost);
-            buildString();
         }
 
-        // Build and display total string
-        totalString(buildTotal());
+        // Display the totals
+        showTotals();
+        showNutritionHistory();
 
         // Set adapter for RecyclerView
         getAdapter();
     }
 
-    public void buildString() {
-        Log.i("TAG", String.valueOf(listItem));
-        String orderString = (comment != null) ?
-                listItem.toUpperCase(Locale.getDefault()) + item.toLowerCase(Locale.getDefault()) + "\n" + comment :
-                listItem.toUpperCase(Locale.getDefault()) + item.toLowerCase(Locale.getDefault());
-        orderString = orderString.replace("order summary", "");
-        itemList.add(orderString);
+    // Same cents formatting as the order screen's total
+    public void totalString(long value) {
+        total.setText("Total :   " + OrderLine.formatPrice(value));
     }
 
-    public int buildTotal() {
-        int total = 0;
-        for (int i = 0; i < costList.size(); i++) {
-            total += costList.get(i);
+    // The cart keeps its totals as lines change, nothing here walks the lines
+    private float[] cartNutrition() {
+        float[] values = new float[NutritionTable.COLUMN_COUNT];
+        for (int column = 0; column < values.length; column++) {
+            values[column] = cart.getNutrition(column);
         }
-        return total;
+        return values;
+    }
+
+    private void showTotals() {
+        totalString(cart.getTotalCents());
+        cartNutrition.setText(getString(R.string.cart_nutrition, Math.round(cart.getNutrition(NutritionTable.CALORIES)),
+                Math.round(cart.getNutrition(NutritionTable.PROTEIN)), Math.round(cart.getNutrition(NutritionTable.SODIUM))));
     }
 
-    public void totalString(int value) {
-        String string = String.valueOf(value);
-        if (string.length() > 2) {
-            String centsString = string.substring(string.length() - 2);
-            String dollarString = string.substring(0, string.length() - 2);
-            string = dollarString + "." + centsString;
+    // Two windows, each a couple of record reads however long the history is
+    private void showNutritionHistory() {
+        int today = NutritionHistory.dayOf(System.currentTimeMillis(), TimeZone.getDefault());
+        try {
+            NutritionHistory.Totals week = nutritionHistory.window(today, WEEK_DAYS);
+            NutritionHistory.Totals month = nutritionHistory.window(today, MONTH_DAYS);
+            historyNutrition.setText(getString(R.string.nutrition_history,
+                    Math.round(week.get(NutritionTable.CALORIES)), week.orders,
+                    Math.round(month.get(NutritionTable.CALORIES)), month.orders));
+        } catch (IOException e) {
+            Log.w("TAG", "nutrition history", e);
+            historyNutrition.setText(null);
         }
-        String totalNumber = "Total :   $" + string;
-        total.setText(totalNumber);
     }
 
     public void getAdapter() {
         RecyclerView recyclerView = findViewById(R.id.order_summary_recyclerview);
-        myadapter = new OrderSummaryAdapter(this, itemList);
+        myadapter = new OrderSummaryAdapter(this, cart.lines(), new CartLabels());
         recyclerView.setAdapter(myadapter);
         LinearLayoutManager layoutManager = new LinearLayoutManager(this);
         recyclerView.setLayoutManager(layoutManager);
     }
 
+    // Changes are written behind the screen as they happen, leaving writes whatever is still waiting
     @Override
-    protected void onStop() {
-        saveLists();
-        super.onStop();
+    protected void onPause() {
+        autosave.flush();
+        super.onPause();
     }
 
-    public void saveLists() {
-        sharedPreferences.edit().putInt(NUMBER_OF_ITEMS, itemList.size()).apply();
-        for (int i = 0; i < itemList.size(); i++) {
-            sharedPreferences.edit().putInt(ITEM_COST + i, costList.get(i)).apply();
-            sharedPreferences.edit().putString(ITEM_STRING + i, itemList.get(i)).apply();
+    private void loadLists() {
+        ArrayList<CartLine> lines = new ArrayList<>();
+        try {
+            autosave.load(lines);
+        } catch (IOException e) {
+            // A damaged cart is dropped rather than shown half read
+            Log.w("TAG", "cart", e);
+            lines.clear();
+        }
+        for (CartLine line : lines) {
+            cart.add(line);
+        }
+        migrateLegacyCart();
+    }
+
+    // A cart in the old preferences is display text and a price per line. Its choices can't be
+    // read back, so each line moves over as text, then the old file goes once the cart is saved.
+    private void migrateLegacyCart() {
+        File legacyFile = new File(getApplicationInfo().dataDir, "shared_prefs/" + LEGACY_PREFERENCES + ".xml");
+        if (!legacyFile.exists()) {
+            return;
+        }
+        SharedPreferences legacy = getSharedPreferences(LEGACY_PREFERENCES, MODE_PRIVATE);
+        int count = legacy.getInt(LEGACY_COUNT, 0);
+        for (int i = 0; i < count; i++) {
+            String text = legacy.getString(LEGACY_TEXT + i, "");
+            // Cleared carts blanked their lines
+            if (!text.isEmpty()) {
+                cart.add(CartLine.textOnly(text, legacy.getInt(LEGACY_COST + i, 0),
+                        parseNutrition(legacy.getString(LEGACY_NUTRITION + i, ""))));
+            }
         }
+        try {
+            // Once, on the first launch after the upgrade; the old cart stays until this is on disk
+            autosave.save(cart.lines());
+        } catch (IOException e) {
+            Log.w("TAG", "cart", e);
+            return;
+        }
+        legacy.edit().clear().commit();
+        if (!legacyFile.delete()) {
+            Log.w("TAG", "Could not delete " + legacyFile);
+        }
+    }
+
+    private static float[] parseNutrition(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != NutritionTable.COLUMN_COUNT) {
+            return null;
+        }
+        float[] values = new float[parts.length];
+        try {
+            for (int column = 0; column < parts.length; column++) {
+                values[column] = Float.parseFloat(parts[column]);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return values;
+    }
+
+    // The whole cart in one background write and one sync
+    public void saveLists() {
+        autosave.changed(cart.lines());
+        autosave.flush();
     }
 
     @Override
     public void onListItemClicked(int clickedPosition) {
-        itemList.remove(clickedPosition);
-        costList.remove(clickedPosition);
-        totalString(buildTotal());
-        myadapter.notifyDataSetChanged();
+        cart.remove(clickedPosition);
+        autosave.changed(cart.lines());
+        showTotals();
+        myadapter.notifyItemRemoved(clickedPosition);
+    }
+
+    @Override
+    public void onQuantityStepped(int position, int delta) {
+        if (cart.step(position, delta)) {
+            autosave.changed(cart.lines());
+            showTotals();
+            // Only the quantity and its stepper change, the line's text stays bound
+            myadapter.notifyItemChanged(position, OrderSummaryAdapter.QUANTITY);
+        }
     }
 
     @Override
@@ -161,19 +264,89 @@ public class CheckoutActivity extends Activity implements OrderSummaryAdapter.Li
     }
 
     public void startDeliveryCarryOut(View v) {
+        // The cart counts toward the history once it is sent to the store, sending it again
+        // unchanged the same day is the same order, on another day it is a new one
+        SharedPreferences checkout = getSharedPreferences(CHECKOUT, MODE_PRIVATE);
+        int today = NutritionHistory.dayOf(System.currentTimeMillis(), TimeZone.getDefault());
+        long recordKey = (long) today << 32 | cartChecksum();
+        if (!cart.isEmpty() && checkout.getLong(RECORDED_CART, -1) != recordKey) {
+            checkout.edit().putLong(RECORDED_CART, recordKey).apply();
+            float[] values = cartNutrition();
+            HISTORY_WRITER.execute(() -> {
+                try {
+                    nutritionHistory.record(today, values);
+                } catch (IOException e) {
+                    Log.w("TAG", "nutrition history", e);
+                }
+            });
+        }
         startActivity(new Intent(getApplicationContext(), MapFragmentActivity.class));
     }
 
+    // Changes with any line or quantity, the same cart always gives the same value
+    private long cartChecksum() {
+        CRC32 crc = new CRC32();
+        crc.update(CartStore.encode(cart.lines()));
+        return crc.getValue();
+    }
+
     public void clearList(View v) {
-        for (int i = 0; i < itemList.size(); i++) {
-            sharedPreferences.edit().putInt(ITEM_COST + i, 0).apply();
-            sharedPreferences.edit().putString(ITEM_STRING + i, "").apply();
+        int count = cart.size();
+        cart.clear();
+        autosave.clear();
+        // A cart built up again after clearing is a new order, even if it matches the last one
+        getSharedPreferences(CHECKOUT, MODE_PRIVATE).edit().remove(RECORDED_CART).apply();
+        showTotals();
+        myadapter.notifyItemRangeRemoved(0, count);
+    }
+
+    // Names for cart lines from the same resources the order screen's spinners use
+    private final class CartLabels implements CartLine.Labels {
+        private final MenuCatalog catalog = MenuCatalog.get(CheckoutActivity.this);
+        private final SparseArray<String[]> options = new SparseArray<>();
+        private final String[] directions = new String[OrderLine.KIND_COUNT];
+
+        CartLabels() {
+            Arrays.fill(directions, "");
+            directions[OrderLine.ADD] = getString(R.string.order_ADD) + " ";
+            directions[OrderLine.NO] = getString(R.string.order_NO) + " ";
+            directions[OrderLine.LEFT] = getString(R.string.pizza_left) + " ";
+            directions[OrderLine.RIGHT] = getString(R.string.pizza_right) + " ";
+        }
+
+        @Override
+        public String title(int itemId) {
+            gemenielabs.italian.Data.MenuItem item = catalog.getItemById(itemId);
+            return item == null ? "" : item.title.trim().toUpperCase(Locale.getDefault());
+        }
+
+        @Override
+        public String option(int itemId, int kind, int selection) {
+            int array;
+            if (kind == OrderLine.SIZE) {
+                gemenielabs.italian.Data.MenuItem item = catalog.getItemById(itemId);
+                if (item == null || item.sizeOptions == 0) {
+                    return null;
+                }
+                array = item.sizeOptions;
+            } else if (kind == OrderLine.CRUST) {
+                array = R.array.crust_array;
+            } else if (kind == OrderLine.LEFT || kind == OrderLine.RIGHT) {
+                array = R.array.half_toppings_array;
+            } else {
+                array = R.array.toppings_array;
+            }
+            String[] labels = options.get(array);
+            if (labels == null) {
+                labels = getResources().getStringArray(array);
+                options.put(array, labels);
+            }
+            return selection < labels.length ? labels[selection].toLowerCase(Locale.getDefault()) : "";
+        }
+
+        @Override
+        public String direction(int kind) {
+            return directions[kind].toLowerCase(Locale.getDefault());
         }
-        sharedPreferences.edit().putInt(NUMBER_OF_ITEMS, 0).apply();
-        itemList.clear();
-        costList.clear();
-        totalString(0);
-        myadapter.notifyDataSetChanged();
     }
 }
-
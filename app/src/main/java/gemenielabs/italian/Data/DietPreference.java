@@ -0,0 +1,29 @@
+package gemenielabs.italian.Data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * The MenuItem allergen bits the customer avoids, chosen on the main menu and checked again on
+ * the order screen.
+ */
+public final class DietPreference {
+
+    private static final String PREFERENCES = "diet";
+    private static final String AVOIDED = "avoided";
+
+    private DietPreference() {
+    }
+
+    public static int getAvoided(Context context) {
+        return preferences(context).getInt(AVOIDED, 0);
+    }
+
+    public static void setAvoided(Context context, int avoided) {
+        preferences(context).edit().putInt(AVOIDED, avoided).apply();
+    }
+
+    private static SharedPreferences preferences(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE);
+    }
+}
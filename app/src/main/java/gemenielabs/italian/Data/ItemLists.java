@@ -1,292 +0,0 @@
-package gemenielabs.italian.Data;
-
-
-import java.util.ArrayList;
-
-import java.util.List;
-
-import gemenielabs.italian.R;
-
-
-public class ItemLists {
-
-
-    public static final List<String> pizzaTitleList = new ArrayList<String>(){{
-        add("Mobster");
-        add("TACO ");
-        add("Chicken Teriyaki");
-        add("The Alfredo Pizza");
-        add("Chicken Alfredo");
-        add("Southwest Chicken Alfredo");
-        add("Deluxe");
-        add("Bacon Cheeseburger");
-        add("Meat Cravers");
-        add("BBQ");
-        add("Veggie Cravers");
-        add("Pepperoni Cravers");
-        add("German Pie");
-        add("Hawaiian Pie");
-        add("Capone");
-        add("Polynesian");
-        add("Buffalo Wing");
-        add("Chicken Bacon Ranch");
-        add("Classic Italian");
-        add("Sausage Cravers");
-        add("Meatball Pie");
-        add("Create Your Own");
-        add("Calzone");
-    }};
-
-    public static final List<Integer> pizzaList = new ArrayList<Integer>(){{
-        add(R.drawable.mobster);
-        add(R.drawable.taco);
-        add(R.drawable.teriyaki);
-        add(R.drawable.alfredo);
-        add(R.drawable.chickenalfredo);
-        add(R.drawable.southwestchickenalfredo);
-        add(R.drawable.deluxe);
-        add(R.drawable.baconcheeseburger);
-        add(R.drawable.meatcravers);
-        add(R.drawable.bbq);
-        add(R.drawable.veggie);
-        add(R.drawable.pepperonicravers);
-        add(R.drawable.german);
-        add(R.drawable.hawaiian);
-        add(R.drawable.capone);
-        add(R.drawable.polynesian);
-        add(R.drawable.buffalowing);
-        add(R.drawable.chickenbaconranch);
-        add(R.drawable.classicitalian);
-        add(R.drawable.sausagecravers);
-        add(R.drawable.meatballpie);
-        add(R.drawable.alfredo);
-        add(R.drawable.calzone);
-    }};
-
-    private static final List<String> pizzaDescriptionList = new ArrayList<String>(){{
-        add("Beef, Pork Sausage, Mushroom, Pepperoni, Italian Sausage, Green Pepper, Onion, Black Olive, Canadian Style Bacon, Salami, and Extra Cheese.");
-        add("Beef, Onion, Cheese Blend, Lettuce, Refried Beans, Fresh Tomato, and Taco Sauce.");
-        add("Teriyaki Sauce, Chicken, Onion, Green Pepper, Pineapple, Cheese Blend, and Real Bacon Pieces.");
-        add("Alfredo Sauce with Cheese Blend, and your choice of three toppings.");
-        add("Alfredo Sauce, Chicken, Mushroom, Real Bacon Pieces, and Cheese Blend.");
-        add("Alfredo Sauce, Chicken, Onion, Cheese Blend, and Roasted Red Pepper.");
-        add("Beef, Pork Sausage, Mushroom, Pepperoni, Green Pepper, Mozzarella Cheese, and Onion.");
-        add("Beef, Real Bacon Pieces, Onion, Cheese Blend.");
-        add("Beef, Pork Sausage, Pepperoni, Canadian Style Bacon, Real Bacon Pieces, Italian Sausage, Salami, and Mozzarella Cheese.");
-        add("Choice of Roast Beef or Chicken, BBQ Sauce, Onion, and Cheese Blend.");
-        add("Mushroom, Green Pepper, Onion, Fresh Tomato, Mozzarella Cheese, and Black Olive.");
-        add("Extra Pepperoni and Extra Mozzarella Cheese.");
-        add("Canadian Style Bacon, Sauerkraut, and Mozzarella Cheese. Some stores may add Sliced Italian Sausage and Onion.");
-        add("Canadian Style Bacon, Pineapple, and Mozzarella Cheese.");
-        add("Beef, Italian Sausage, Pepperoni, Onion, Jalapeno, and Mozzarella.");
-        add("Canadian Style Bacon, Pineapple, Green Pepper, Fresh Tomato, Real Bacon Pieces, and Cheese Blend.");
-        add("Wing Sauce, Chicken, Onion, Green Pepper, Real Bacon Pieces, and Cheese Blend.");
-        add("Ranch Dressing, Chicken, Real Bacon Pieces, Cheese Blend.");
-        add("Pepperoni, Italian Sausage, Salami, Pepperoncini Pepper, Onion, Cheese Blend, and Italian Spices.");
-        add("Pork Sausage, Italian Sausage, Sliced Italian Sausage, and Mozzarella Cheese.");
-        add("Marinara Sauce, Meatballs, Onion, Green Pepper, Mozzarella Cheese.");
-        add("Your choice toppings.");
-        add("Our Pizza Dough folded and stuffed with Creamy Italian Sauce, Blended Cheeses and your choice of any 3 Pizza Toppings.");
-    }};
-
-    private static final List<String> sandwichesTitleList = new ArrayList<String>(){{
-        add("Chicken Bacon Ranch");
-        add("Italian Sausage");
-        add("Gambino Club");
-        add("Italian Chicken");
-        add("Italian Sub");
-        add("Meaty Meatball");
-        add("Reuben");
-        add("Roast Beef");
-        add("Spicy Pepperoni");
-        add("Super Ham and Cheese");
-        add("Turkey Deluxe");
-        add("Super Italian Sub");
-    }};
-
-    private static final List<Integer> sandwichesList = new ArrayList<Integer>(){{
-        add(R.drawable.sandchickenbaconranch);
-        add(R.drawable.sanditaliansausage);
-        add(R.drawable.sandgambinosclub);
-        add(R.drawable.sanditalianchicken);
-        add(R.drawable.sanditaliansub);
-        add(R.drawable.sandmeatymeatball);
-        add(R.drawable.sandreuben);
-        add(R.drawable.sandroastbeef);
-        add(R.drawable.sandspicypepperoni);
-        add(R.drawable.sandsuperhamandcheese);
-        add(R.drawable.sandturkeydeluxe);
-        add(R.drawable.sandsuperitaliansub);
-    }};
-
-    private static final List<String> sandwichesDescriptionList = new ArrayList<String>(){{
-        add("Chicken, Real Bacon Pieces, Cheese Blend, Lettuce, Tomato and Ranch Dressing.");
-        add("Sliced Italian Sausage, Marinara Sauce, Green Pepper, Onion, and Mozzarella Cheese.");
-        add("Ham, Turkey, Bacon, Mozzarella Cheese, Lettuce, Tomato, and Mayo.");
-        add("Chicken, Mozzarella Cheese, Lettuce, Tomato, and Italian Dressing.");
-        add("Ham, Salami, Pepperoni, Mozzarella Cheese, Lettuce, Tomato, and Italian Dressing.");
-        add("Meatballs, Marinara Sauce, and Mozzarella Cheese.");
-        add("Marble Rye, Corned Beef, Swiss American Cheese, Sauerkraut, and 1000 Island Dressing.");
-        add("Roast Beef, Cheese Blend, Lettuce, Tomato, and Mayo.");
-        add("Pepperoni, Mozzarella Cheese, Lettuce, Tomato, and Italian Dressing.");
-        add("Ham, Mozzarella Cheese, Lettuce, Tomato, and Italian Dressing.");
-        add("Turkey, Mozzarella Cheese, Lettuce, Tomato, and Mayo.");
-        add("Italian Sausage, Ham, Salami, Onion, Green Pepper, Pepperoni, Mozzarella, Lettuce, Tomato, Jalapenos, Italian Dressing.");
-    }};
-
-    private static final List<String> pastaTitleList = new ArrayList<String>(){{
-        add("Spaghetti with Meatballs");
-        add("Deluxe Spaghetti");
-        add("Lasagna");
-        add("Southwest Fettuccini Alfredo");
-        add("California Fettuccini Alfredo");
-        add("Fettuccini Alfredo");
-        add("Chicken Fettuccini Alfredo");
-        add("Tortellini Alfredo");
-        add("Chicken Tortellini Alfredo");
-        add("Manicotti");
-        add("Manicotti with Sliced Italian Sausage");
-        add("Spaghetti");
-        add("Shrimp Fettuccini Alfredo");
-    }};
-
-    private static final List<Integer> pastasList = new ArrayList<Integer>(){{
-        add(R.drawable.pastaspaghettiwmeatballs);
-        add(R.drawable.pastadeluxespaghetti);
-        add(R.drawable.pastalasagna);
-        add(R.drawable.pastasouthwestalfredo);
-        add(R.drawable.pastacaliforniaalfredo);
-        add(R.drawable.pastafettuccinialfredo);
-        add(R.drawable.pastachickenfettuccinialfredo);
-        add(R.drawable.pastatortellinialfredo);
-        add(R.drawable.pastachickenrortellinialfredo);
-        add(R.drawable.pastamanicotti);
-        add(R.drawable.pastamanicottiwsausage);
-        add(R.drawable.pastaspaghetti);
-        add(R.drawable.pastashrimpalfredo);
-    }};
-
-    private static final List<String> pastaDescriptionList = new ArrayList<String>(){{
-        add("Spaghetti with Meatballs");
-        add("Beef, Sausage, Pepperoni, Mushroom, Onion, and Green Pepper.");
-        add("Lasagna");
-        add("Chicken, Onion, and Roasted Red Pepper. ");
-        add("Chicken, Mushroom, Fresh Tomato, and Real Bacon Pieces.");
-        add("Fettuccini Alfredo");
-        add("Chicken Fettuccini Alfredo");
-        add("Tortellini Alfredo");
-        add("Chicken Tortellini Alfredo");
-        add("Manicotti");
-        add("Manicotti with Sliced Italian Sausage");
-        add("Spaghetti");
-        add("Shrimp Fettuccini Alfredo");
-
-    }};
-
-    private static final List<String> appetizerTitleList = new ArrayList<String>(){{
-        add("Buffalo Wings");
-        add("Buffalo Blasters");
-        add("Breadsticks");
-        add("Breadsticks with Cheese");
-        add("Bruschetta");
-        add("Cheese Stick Pizza");
-        add("Italian Cheese Stick Pizza");
-        add("Garlic Bread");
-        add("Garlic Bread with Cheese");
-        add("Mozzarella Sticks");
-        add("Toasted Jalapeño Cheese Ravioli");
-    }};
-
-    private static final List<Integer> appetizersList = new ArrayList<Integer>(){{
-        add(R.drawable.appwings);
-        add(R.drawable.appblasters);
-        add(R.drawable.appbreadsticks);
-        add(R.drawable.appbreadstickswcheese);
-        add(R.drawable.appbruschetta);
-        add(R.drawable.appcheesesticks);
-        add(R.drawable.appcheesesticks);
-        add(R.drawable.appgarlicbread);
-        add(R.drawable.appgarlicbreadwcheese);
-        add(R.drawable.appmozzarellasticks);
-        add(R.drawable.appravioli);
-    }};
-
-    private static final List<String> appetizerDescriptionList = new ArrayList<String>(){{
-        add("Bone-In, Buffalo-Style Chicken Wings tossed with your choice of sauce. Available in Hot, Teriyaki, BBQ, Ranch, Parmesan Garlic or Oven Roasted.");
-        add("Boneless Wings made with all white meat chicken. Choose from Hot, Teriyaki, BBQ, Ranch, Parmesan Garlic or Oven Roasted. ");
-        add("With Marinara");
-        add("With Marinara");
-        add("Fresh Tomato, Onion, Mozzarella Cheese, and Italian Spices, toasted on Garlic Bread.");
-        add("Pizza Dough covered in Garlic Butter, Blended Cheeses and Italian Spices. Served with a side of Marinara.");
-        add("Our original Cheese Stick Pizza combined with Creamy Italian Sauce. Served with a side of Marinara.");
-        add("Garlic Bread");
-        add("Garlic Bread with Cheese");
-        add("With Marinara");
-        add("Served with Ranch Dressing");
-    }};
-
-    private static final List<String> desertTitleList = new ArrayList<String>(){{
-        add("Dutch Apple");
-        add("Very Cherry");
-        add("Cinnamon Streusel");
-        add("Normous Chocolate Chip Cookie");
-        add("Heart Shaped");
-    }};
-
-    private static final List<Integer> desertsList = new ArrayList<Integer>() {{
-        add(R.drawable.desertapple);
-        add(R.drawable.desertcherry);
-        add(R.drawable.desertcinnamon);
-        add(R.drawable.desertnormouscookie);
-        add(R.drawable.desertcherryheart);
-    }};
-
-    private static final List<String> desertDescriptionList = new ArrayList<String>(){{
-        add("Dutch Apple");
-        add("Very Cherry");
-        add("Cinnamon Streusel");
-        add("Normous Chocolate Chip Cookie");
-        add("Any pizza may be ordered in the heart shape.");
-    }};
-
-    private static final List<String> saladsAndCalzoneTitleList = new ArrayList<String>(){{
-        add("Garden Salad");
-        add("Italian Salad");
-    }};
-
-    private static final List<Integer> saladsAndCalzoneList = new ArrayList<Integer>(){{
-        add(R.drawable.saladgarden);
-        add(R.drawable.saladitalian);
-    }};
-
-    private static final List<String> saladsAndCalzoneDescriptionList = new ArrayList<String>(){{
-        add("Garden Salad");
-        add("Italian Salad");
-    }};
-
-
-    public static List<String> getPizzaTitleList() {return pizzaTitleList;}
-    public static List<Integer> getPizzaList(){return pizzaList;}
-    public static List<String> getPizzaDescriptionList(){return pizzaDescriptionList;}
-
-    public static List<String> getSandwichesTitleList() {return sandwichesTitleList;}
-    public static List<Integer> getSandwichesList(){return sandwichesList;}
-    public static List<String> getSandwichesDescriptionList(){return sandwichesDescriptionList;}
-
-    public static List<String> getPastaTitleList() {return pastaTitleList;}
-    public static List<Integer> getPastasList(){return pastasList;}
-    public static List<String> getPastaDescriptionList(){return pastaDescriptionList;}
-
-    public static List<String> getAppetizerTitleList() {return appetizerTitleList;}
-    public static List<Integer> getAppetizersList(){return appetizersList;}
-    public static List<String> getAppetizerDescriptionList(){return appetizerDescriptionList;}
-
-    public static List<String> getDesertTitleList() {return desertTitleList;}
-    public static List<Integer> getDesertsList(){return desertsList;}
-    public static List<String> getDesertDescriptionList(){return desertDescriptionList;}
-
-    public static List<Integer> getSaladsAndCalzoneList(){return saladsAndCalzoneList;}
-    public static List<String> getSaladsAndCalzoneTitleList() {return saladsAndCalzoneTitleList;}
-    public static List<String> getSaladsAndCalzoneDescriptionList(){return saladsAndCalzoneDescriptionList;}
-
-}
@@ -0,0 +1,214 @@
+package gemenielabs.italian.Data;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Menu and nutrition data read from the compiled catalog asset, at most once per process.
+ * {@link #load(Context, Callback)} reads it on a background thread, {@link #get(Context)}
+ * blocks only if the first read is still running.
+ */
+public final class MenuCatalog {
+
+    public static final String ASSET = "menu_catalog.bin";
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Object LOCK = new Object();
+    private static volatile MenuCatalog instance;
+    static int loadCount;
+
+    private final MenuItem[] items;
+    private final int[] indexById;
+    private final Map<String, Category> categories;
+    private final List<String> categoryKeys;
+    private final NutritionTable nutritionTable;
+    private final List<String> nutritionReport;
+    private final List<String> addOns;
+    private final NutritionTable addOnNutrition;
+    private final int[] addOnAllergens;
+    private final Map<String, int[]> priceTables;
+
+    public interface Callback {
+        void onCatalogLoaded(MenuCatalog catalog);
+    }
+
+    interface Source {
+        InputStream open() throws IOException;
+    }
+
+    // Items of a category are stored contiguously, so its list is a view rather than a copy
+    public static final class Category {
+        public final String key;
+        public final int start;
+        public final int end;
+        public final List<MenuItem> items;
+
+        Category(String key, int start, int end, MenuItem[] allItems) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.items = Collections.unmodifiableList(Arrays.asList(allItems).subList(start, end));
+        }
+    }
+
+    MenuCatalog(MenuItem[] items, Map<String, Category> categories,
+                NutritionTable nutritionTable, List<String> nutritionReport, List<String> addOns,
+                NutritionTable addOnNutrition, int[] addOnAllergens, Map<String, int[]> priceTables) {
+        this.items = items;
+        this.categories = Collections.unmodifiableMap(categories);
+        this.categoryKeys = Collections.unmodifiableList(new ArrayList<>(categories.keySet()));
+        this.nutritionTable = nutritionTable;
+        this.nutritionReport = nutritionReport;
+        this.addOns = addOns;
+        this.addOnNutrition = addOnNutrition;
+        this.addOnAllergens = addOnAllergens;
+        this.priceTables = priceTables;
+
+        int maxId = 0;
+        for (MenuItem item : items) {
+            maxId = Math.max(maxId, item.id);
+        }
+        indexById = new int[maxId + 1];
+        Arrays.fill(indexById, -1);
+        for (MenuItem item : items) {
+            indexById[item.id] = item.index;
+        }
+    }
+
+    public static void load(Context context, Callback callback) {
+        MenuCatalog loaded = instance;
+        if (loaded != null) {
+            callback.onCatalogLoaded(loaded);
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        LOADER.execute(() -> {
+            MenuCatalog catalog = get(appContext);
+            mainHandler.post(() -> callback.onCatalogLoaded(catalog));
+        });
+    }
+
+    public static MenuCatalog get(Context context) {
+        MenuCatalog result = instance;
+        if (result != null) {
+            return result;
+        }
+        Context appContext = context.getApplicationContext();
+        Resources resources = appContext.getResources();
+        String packageName = appContext.getPackageName();
+        result = get(() -> appContext.getAssets().open(ASSET),
+                (name, type) -> resources.getIdentifier(name, type, packageName));
+        // Menu titles that found no nutrition record, or only a near miss, show up while developing
+        if ((appContext.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            for (String line : result.getNutritionReport()) {
+                Log.w("MenuCatalog", line);
+            }
+        }
+        return result;
+    }
+
+    static MenuCatalog get(Source source, MenuCatalogReader.ResourceResolver resolver) {
+        MenuCatalog result = instance;
+        if (result == null) {
+            synchronized (LOCK) {
+                result = instance;
+                if (result == null) {
+                    loadCount++;
+                    try (InputStream in = source.open()) {
+                        result = MenuCatalogReader.read(in, resolver);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Unable to read " + ASSET, e);
+                    }
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public MenuItem getItem(int index) {
+        return items[index];
+    }
+
+    public MenuItem getItemById(int id) {
+        if (id < 0 || id >= indexById.length || indexById[id] < 0) {
+            return null;
+        }
+        return items[indexById[id]];
+    }
+
+    public Category getCategory(String key) {
+        return categories.get(key);
+    }
+
+    // Category keys in menu order
+    public List<String> getCategoryKeys() {
+        return categoryKeys;
+    }
+
+    public List<MenuItem> getItems(String category) {
+        return categories.get(category).items;
+    }
+
+    public NutritionTable getNutritionTable() {
+        return nutritionTable;
+    }
+
+    // Items matched loosely to a nutrition record or left without one, see NutritionMatcher
+    public List<String> getNutritionReport() {
+        return nutritionReport;
+    }
+
+    public List<MenuItem> getItemsWithoutNutrition() {
+        List<MenuItem> result = new ArrayList<>();
+        for (MenuItem item : items) {
+            if (item.nutritionRow == NutritionTable.NOT_FOUND) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    public List<String> getAddOns() {
+        return addOns;
+    }
+
+    // Estimated nutrition of one portion of each add-on, rows in getAddOns() order
+    public NutritionTable getAddOnNutrition() {
+        return addOnNutrition;
+    }
+
+    // MenuItem allergen bits of the add-on at index in getAddOns()
+    public int getAddOnAllergens(int index) {
+        return addOnAllergens[index];
+    }
+
+    // Price tables from arrays.xml in cents, or null if the catalog has no table by that name
+    public int[] getPriceTable(String name) {
+        int[] prices = priceTables.get(name);
+        return prices == null ? null : prices.clone();
+    }
+}
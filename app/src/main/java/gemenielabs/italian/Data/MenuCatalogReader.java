@@ -0,0 +1,161 @@
+package gemenielabs.italian.Data;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Streams the binary menu catalog written by the compileMenuCatalog Gradle task (see catalog.gradle).
+ */
+public class MenuCatalogReader {
+
+    public static final int MAGIC = 0x4D454E55;
+    public static final int FORMAT_VERSION = 6;
+
+    public interface ResourceResolver {
+        int resolve(String name, String type);
+    }
+
+    public static MenuCatalog read(InputStream inputStream, ResourceResolver resolver) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a menu catalog");
+        }
+        int formatVersion = in.readUnsignedShort();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported menu catalog format " + formatVersion);
+        }
+        in.readInt(); // menu version, nothing needs it at runtime
+
+        int categoryCount = in.readUnsignedShort();
+        String[] categoryKeys = new String[categoryCount];
+        int[] categoryEnds = new int[categoryCount];
+        ArrayList<ItemRecord> records = new ArrayList<>();
+        for (int c = 0; c < categoryCount; c++) {
+            categoryKeys[c] = in.readUTF();
+            int itemCount = in.readUnsignedShort();
+            for (int i = 0; i < itemCount; i++) {
+                ItemRecord record = new ItemRecord();
+                record.id = in.readInt();
+                record.position = i;
+                record.category = categoryKeys[c];
+                record.title = in.readUTF();
+                record.description = in.readUTF();
+                String drawable = in.readUTF();
+                record.drawable = resolver.resolve(drawable, "drawable");
+                // Row thumbnails come from images.gradle, fall back to the photo without one
+                record.thumbnail = resolver.resolve(drawable + "_thumb", "drawable");
+                if (record.thumbnail == 0) {
+                    record.thumbnail = record.drawable;
+                }
+                String[] tables = new String[in.readUnsignedByte()];
+                for (int t = 0; t < tables.length; t++) {
+                    tables[t] = in.readUTF();
+                }
+                record.priceTables = Collections.unmodifiableList(Arrays.asList(tables));
+                record.priceColumn = in.readShort();
+                record.flags = in.readUnsignedByte();
+                String sizes = in.readUTF();
+                record.sizeOptions = sizes.isEmpty() ? 0 : resolver.resolve(sizes, "array");
+                record.sizeScales = new float[in.readUnsignedByte()];
+                for (int size = 0; size < record.sizeScales.length; size++) {
+                    record.sizeScales[size] = in.readFloat();
+                }
+                record.stuffingCount = in.readUnsignedByte();
+                record.allergens = in.readUnsignedByte();
+                records.add(record);
+            }
+            categoryEnds[c] = records.size();
+        }
+
+        NutritionTable nutritionTable = readNutrition(in);
+
+        String[] titles = new String[records.size()];
+        String[] itemCategories = new String[records.size()];
+        for (int index = 0; index < titles.length; index++) {
+            titles[index] = records.get(index).title;
+            itemCategories[index] = records.get(index).category;
+        }
+        NutritionMatcher matcher = NutritionMatcher.match(titles, itemCategories, nutritionTable);
+
+        MenuItem[] items = new MenuItem[records.size()];
+        for (int index = 0; index < items.length; index++) {
+            ItemRecord record = records.get(index);
+            items[index] = new MenuItem(record.id, index, record.position, record.category,
+                    record.title, record.description, record.drawable, record.thumbnail,
+                    record.priceTables, record.priceColumn, matcher.rowOf(index),
+                    record.flags, record.sizeOptions, record.sizeScales, record.stuffingCount,
+                    record.allergens);
+        }
+        LinkedHashMap<String, MenuCatalog.Category> categories = new LinkedHashMap<>();
+        int start = 0;
+        for (int c = 0; c < categoryCount; c++) {
+            categories.put(categoryKeys[c], new MenuCatalog.Category(categoryKeys[c], start, categoryEnds[c], items));
+            start = categoryEnds[c];
+        }
+
+        // Add-ons are stored as a nutrition table, one row per topping in toppings_array order
+        NutritionTable addOnNutrition = readNutrition(in);
+        List<String> addOns = new ArrayList<>(addOnNutrition.size());
+        for (int i = 0; i < addOnNutrition.size(); i++) {
+            addOns.add(addOnNutrition.getTitle(i));
+        }
+        int[] addOnAllergens = new int[addOns.size()];
+        for (int i = 0; i < addOnAllergens.length; i++) {
+            addOnAllergens[i] = in.readUnsignedByte();
+        }
+
+        int tableCount = in.readUnsignedShort();
+        HashMap<String, int[]> priceTables = new HashMap<>(tableCount * 2);
+        for (int t = 0; t < tableCount; t++) {
+            String name = in.readUTF();
+            int[] prices = new int[in.readUnsignedShort()];
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = in.readInt();
+            }
+            priceTables.put(name, prices);
+        }
+
+        return new MenuCatalog(items, categories, nutritionTable,
+                matcher.getReport(), Collections.unmodifiableList(addOns), addOnNutrition, addOnAllergens, priceTables);
+    }
+
+    private static NutritionTable readNutrition(DataInputStream in) throws IOException {
+        int rows = in.readUnsignedShort();
+        String[] titles = new String[rows];
+        float[][] columns = new float[NutritionTable.COLUMN_COUNT][rows];
+        int[] lessThanMask = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            titles[row] = in.readUTF();
+            for (int column = 0; column < NutritionTable.COLUMN_COUNT; column++) {
+                columns[column][row] = in.readFloat();
+            }
+            lessThanMask[row] = in.readUnsignedByte();
+        }
+        return new NutritionTable(titles, columns, lessThanMask);
+    }
+
+    private static class ItemRecord {
+        int id;
+        int position;
+        String category;
+        String title;
+        String description;
+        int drawable;
+        int thumbnail;
+        List<String> priceTables;
+        int priceColumn;
+        int flags;
+        int sizeOptions;
+        float[] sizeScales;
+        int stuffingCount;
+        int allergens;
+    }
+}
@@ -0,0 +1,83 @@
+package gemenielabs.italian.Data;
+
+import java.util.List;
+
+/**
+ * One immutable menu entry from the catalog. {@link #id} is stable across catalog versions and
+ * is what screens pass to each other, {@link #index} is the item's slot in the catalog arrays.
+ * Capabilities and option resources are resolved once when the catalog is loaded.
+ */
+public final class MenuItem {
+
+    public static final int ORDERABLE = 1;
+    public static final int TOPPINGS = 1 << 1;
+    public static final int HALF_TOPPINGS = 1 << 2;
+    public static final int SIZED_TOPPINGS = 1 << 3;
+    public static final int CRUST = 1 << 4;
+
+    // Allergen and diet bits, an item has the ones set in allergens
+    public static final int DAIRY = 1;
+    public static final int GLUTEN = 1 << 1;
+    public static final int PORK = 1 << 2;
+    public static final int SHELLFISH = 1 << 3;
+    // Any meat, fish or shellfish, what a vegetarian avoids
+    public static final int MEAT = 1 << 4;
+
+    public final int id;
+    public final int index;
+    public final int position;
+    public final String category;
+    public final String title;
+    public final String description;
+    public final int drawable;
+    public final int thumbnail;
+    public final List<String> priceTables;
+    public final int priceColumn;
+    public final int nutritionRow;
+    public final int flags;
+    public final int sizeOptions;
+    public final int stuffingCount;
+    public final int allergens;
+    // Nutrition scale of each size, relative to the size the nutrition record describes
+    private final float[] sizeScales;
+
+    MenuItem(int id, int index, int position, String category, String title, String description,
+             int drawable, int thumbnail, List<String> priceTables, int priceColumn, int nutritionRow,
+             int flags, int sizeOptions, float[] sizeScales, int stuffingCount,
+             int allergens) {
+        this.id = id;
+        this.index = index;
+        this.position = position;
+        this.category = category;
+        this.title = title;
+        this.description = description;
+        this.drawable = drawable;
+        this.thumbnail = thumbnail;
+        this.priceTables = priceTables;
+        this.priceColumn = priceColumn;
+        this.nutritionRow = nutritionRow;
+        this.flags = flags;
+        this.sizeOptions = sizeOptions;
+        this.sizeScales = sizeScales;
+        this.stuffingCount = stuffingCount;
+        this.allergens = allergens;
+    }
+
+    public boolean has(int capability) {
+        return (flags & capability) != 0;
+    }
+
+    // True if the item has any of the allergen bits in mask
+    public boolean contains(int mask) {
+        return (allergens & mask) != 0;
+    }
+
+    public boolean isOrderable() {
+        return has(ORDERABLE);
+    }
+
+    // 1 for items with a single size or sizes the catalog has no scales for
+    public float getSizeScale(int size) {
+        return size >= 0 && size < sizeScales.length ? sizeScales[size] : 1f;
+    }
+}
@@ -11,11 +11,21 @@ public class NutritionHelper {
     public String sugars;
     public String protien;
     public int mIndex;
-    NutritionInfo nutritionInfo = new NutritionInfo();
+    private final NutritionTable table;
+    private boolean rowResolved;
 
-    public NutritionHelper (String title) {
+    public NutritionHelper (NutritionTable nutritionTable, String title) {
+        table = nutritionTable;
         mTitle = title;
     }
+
+    public NutritionHelper (NutritionTable nutritionTable, MenuItem item) {
+        table = nutritionTable;
+        mTitle = item.title;
+        // The catalog matched the row when it was loaded
+        mIndex = item.nutritionRow;
+        rowResolved = true;
+    }
     public String getCalories() {
         return calories;
     }
@@ -39,21 +49,27 @@ public class NutritionHelper {
     }
 
     public void parseString() {
-        for (int i = 0; i < nutritionInfo.getNutritionInfoArray().size(); i++) {
-            if ((nutritionInfo.getNutritionInfoArray().get(i).equals(mTitle))) {
-                mIndex = i;
-            }
-        }
+        mIndex = table.rowOf(mTitle);
+    }
+
+    // False when no nutrition record matched, the values are then left null
+    public boolean hasNutritionInfo() {
+        return mIndex != NutritionTable.NOT_FOUND;
     }
 
     public void searchForNutritionInfo () {
-        parseString();
-        calories = nutritionInfo.getNutritionInfoArray().get(mIndex + 1);
-        fat = nutritionInfo.getNutritionInfoArray().get(mIndex + 3);
-        saturatedFat = nutritionInfo.getNutritionInfoArray().get(mIndex + 4);
-        sodium = nutritionInfo.getNutritionInfoArray().get(mIndex + 7);
-        carbohydrates = nutritionInfo.getNutritionInfoArray().get(mIndex + 8);
-        sugars = nutritionInfo.getNutritionInfoArray().get(mIndex + 10);
-        protien = nutritionInfo.getNutritionInfoArray().get(mIndex + 11);
+        if (!rowResolved) {
+            parseString();
+        }
+        if (!hasNutritionInfo()) {
+            return;
+        }
+        calories = table.format(mIndex, NutritionTable.CALORIES);
+        fat = table.format(mIndex, NutritionTable.FAT);
+        saturatedFat = table.format(mIndex, NutritionTable.SATURATED_FAT);
+        sodium = table.format(mIndex, NutritionTable.SODIUM);
+        carbohydrates = table.format(mIndex, NutritionTable.CARBOHYDRATES);
+        sugars = table.format(mIndex, NutritionTable.SUGARS);
+        protien = table.format(mIndex, NutritionTable.PROTEIN);
     }
 }
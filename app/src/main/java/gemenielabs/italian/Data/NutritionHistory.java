@@ -0,0 +1,146 @@
+package gemenielabs.italian.Data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.TimeZone;
+
+/**
+ * Nutrition of each placed order, appended to a file of fixed-size records. Every record also
+ * holds the running sum of all orders up to it, so the totals of any span of days are the
+ * difference of two records found by binary search, without reading the orders in between.
+ * A record cut short by a crash is ignored and overwritten by the next order.
+ */
+public final class NutritionHistory {
+
+    public static final String FILE = "nutrition_history.bin";
+
+    private static final int MAGIC = 0x4E555452;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 6;
+    // Day, the order's columns as floats, then the running sums as doubles so they don't drift
+    private static final int RECORD_SIZE = 4 + NutritionTable.COLUMN_COUNT * 4 + NutritionTable.COLUMN_COUNT * 8;
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final File file;
+
+    /** Totals of the orders in a span of days. */
+    public static final class Totals {
+        public final int orders;
+        private final double[] values;
+
+        Totals(int orders, double[] values) {
+            this.orders = orders;
+            this.values = values;
+        }
+
+        public float get(int column) {
+            return (float) values[column];
+        }
+    }
+
+    public NutritionHistory(File file) {
+        this.file = file;
+    }
+
+    // Local days since the epoch, the unit records are kept in
+    public static int dayOf(long timeMillis, TimeZone zone) {
+        return (int) ((timeMillis + zone.getOffset(timeMillis)) / DAY_MILLIS);
+    }
+
+    /** Appends an order placed on {@code day}, days must not go backwards. */
+    public synchronized void record(int day, float[] values) throws IOException {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            int count = open(out);
+            double[] sums = new double[NutritionTable.COLUMN_COUNT];
+            if (count > 0) {
+                int lastDay = readDay(out, count - 1);
+                if (day < lastDay) {
+                    day = lastDay;
+                }
+                readSums(out, count - 1, sums);
+            }
+            out.seek(position(count));
+            out.writeInt(day);
+            for (int column = 0; column < sums.length; column++) {
+                out.writeFloat(values[column]);
+            }
+            for (int column = 0; column < sums.length; column++) {
+                out.writeDouble(sums[column] + values[column]);
+            }
+            out.setLength(position(count + 1));
+            out.getFD().sync();
+        }
+    }
+
+    /** Totals of the orders from {@code days - 1} days before {@code today} through today. */
+    public synchronized Totals window(int today, int days) throws IOException {
+        double[] values = new double[NutritionTable.COLUMN_COUNT];
+        if (file.length() < HEADER_SIZE) {
+            return new Totals(0, values);
+        }
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            int count = open(in);
+            int last = lastOnOrBefore(in, count, today);
+            int before = lastOnOrBefore(in, count, today - days);
+            if (last >= 0) {
+                readSums(in, last, values);
+            }
+            if (before >= 0) {
+                double[] earlier = new double[values.length];
+                readSums(in, before, earlier);
+                for (int column = 0; column < values.length; column++) {
+                    values[column] -= earlier[column];
+                }
+            }
+            return new Totals(last - before, values);
+        }
+    }
+
+    // Record count after checking the header, writing one if the file is new
+    private static int open(RandomAccessFile file) throws IOException {
+        if (file.length() < HEADER_SIZE) {
+            file.setLength(0);
+            file.writeInt(MAGIC);
+            file.writeShort(FORMAT_VERSION);
+            return 0;
+        }
+        file.seek(0);
+        if (file.readInt() != MAGIC || file.readUnsignedShort() != FORMAT_VERSION) {
+            throw new IOException("Not a nutrition history file");
+        }
+        return (int) ((file.length() - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    private static long position(int record) {
+        return HEADER_SIZE + (long) record * RECORD_SIZE;
+    }
+
+    private static int readDay(RandomAccessFile file, int record) throws IOException {
+        file.seek(position(record));
+        return file.readInt();
+    }
+
+    private static void readSums(RandomAccessFile file, int record, double[] sums) throws IOException {
+        file.seek(position(record) + 4 + NutritionTable.COLUMN_COUNT * 4);
+        for (int column = 0; column < sums.length; column++) {
+            sums[column] = file.readDouble();
+        }
+    }
+
+    // Index of the last record on or before day, -1 if every record is later
+    private static int lastOnOrBefore(RandomAccessFile file, int count, int day) throws IOException {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (readDay(file, mid) <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+}
@@ -0,0 +1,170 @@
+package gemenielabs.italian.Data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Pairs menu item titles with nutrition records once, when the catalog is read, so items carry
+ * their row and nothing is matched while the app runs. Titles are compared as normalized keys:
+ * exact keys first, then the key with a "pizza" or "pie" suffix added or dropped, then the
+ * closest unclaimed record within a small edit distance. Items left without a record, and items
+ * matched loosely, are listed in the report.
+ */
+public final class NutritionMatcher {
+
+    // Words the nutrition records add to or leave off a pizza's menu title
+    private static final String[] SUFFIXES = {" pizza", " pie"};
+    // One edit per this many characters of the key, e.g. two for "fettuccini alfredo"
+    private static final int CHARS_PER_EDIT = 8;
+
+    private final int[] rows;
+    private final List<String> report;
+
+    private NutritionMatcher(int[] rows, List<String> report) {
+        this.rows = rows;
+        this.report = report;
+    }
+
+    /**
+     * Matches {@code titles}, in menu order, against the rows of {@code table}. Records sharing a
+     * title are handed out in order, so the pizza and the sandwich of the same name each get
+     * their own row.
+     */
+    public static NutritionMatcher match(String[] titles, String[] categories, NutritionTable table) {
+        String[] rowKeys = new String[table.size()];
+        HashMap<String, List<Integer>> rowsByKey = new HashMap<>();
+        for (int row = 0; row < rowKeys.length; row++) {
+            rowKeys[row] = TextNormalizer.normalize(table.getTitle(row));
+            List<Integer> keyRows = rowsByKey.get(rowKeys[row]);
+            if (keyRows == null) {
+                keyRows = new ArrayList<>();
+                rowsByKey.put(rowKeys[row], keyRows);
+            }
+            keyRows.add(row);
+        }
+        String[] keys = new String[titles.length];
+        for (int i = 0; i < titles.length; i++) {
+            keys[i] = TextNormalizer.normalize(titles[i]);
+        }
+
+        int[] rows = new int[titles.length];
+        Arrays.fill(rows, NutritionTable.NOT_FOUND);
+        boolean[] claimed = new boolean[rowKeys.length];
+        List<String> report = new ArrayList<>();
+
+        // Exact keys for every item before any looser match can take their rows
+        for (int i = 0; i < titles.length; i++) {
+            rows[i] = claim(rowsByKey.get(keys[i]), claimed);
+        }
+        for (int i = 0; i < titles.length; i++) {
+            if (rows[i] != NutritionTable.NOT_FOUND) {
+                continue;
+            }
+            for (String suffix : SUFFIXES) {
+                String variant = keys[i].endsWith(suffix)
+                        ? keys[i].substring(0, keys[i].length() - suffix.length())
+                        : keys[i] + suffix;
+                rows[i] = claim(rowsByKey.get(variant), claimed);
+                if (rows[i] != NutritionTable.NOT_FOUND) {
+                    report.add(categories[i] + "/" + titles[i] + ": matched \"" + table.getTitle(rows[i]) + "\"");
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < titles.length; i++) {
+            if (rows[i] != NutritionTable.NOT_FOUND) {
+                continue;
+            }
+            int limit = Math.max(1, keys[i].length() / CHARS_PER_EDIT);
+            int best = NutritionTable.NOT_FOUND;
+            int bestDistance = limit + 1;
+            boolean tied = false;
+            for (int row = 0; row < rowKeys.length; row++) {
+                if (claimed[row]) {
+                    continue;
+                }
+                int distance = distance(keys[i], rowKeys[row], limit);
+                if (distance < bestDistance) {
+                    best = row;
+                    bestDistance = distance;
+                    tied = false;
+                } else if (distance == bestDistance && best != NutritionTable.NOT_FOUND
+                        && !rowKeys[row].equals(rowKeys[best])) {
+                    tied = true;
+                }
+            }
+            String item = categories[i] + "/" + titles[i];
+            if (best == NutritionTable.NOT_FOUND || tied) {
+                report.add(item + ": no nutrition record");
+                continue;
+            }
+            claimed[best] = true;
+            rows[i] = best;
+            report.add(item + ": matched \"" + table.getTitle(best) + "\" at edit distance " + bestDistance);
+        }
+        return new NutritionMatcher(rows, Collections.unmodifiableList(report));
+    }
+
+    // First unclaimed row, or the last row when every record of the key is taken
+    private static int claim(List<Integer> keyRows, boolean[] claimed) {
+        if (keyRows == null) {
+            return NutritionTable.NOT_FOUND;
+        }
+        for (int row : keyRows) {
+            if (!claimed[row]) {
+                claimed[row] = true;
+                return row;
+            }
+        }
+        return keyRows.get(keyRows.size() - 1);
+    }
+
+    /**
+     * Edit distance counting insertions, deletions, substitutions and swaps of adjacent
+     * characters, or {@code limit + 1} once it is known to exceed {@code limit}.
+     */
+    static int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, previous2[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+
+    // Nutrition row for the title at each index, NutritionTable.NOT_FOUND when there is none
+    public int rowOf(int index) {
+        return rows[index];
+    }
+
+    public List<String> getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,104 @@
+package gemenielabs.italian.Data;
+
+/**
+ * Nutrition facts held in primitive float columns, with an open addressing
+ * hash index from item title to row. Lookups do not allocate.
+ */
+public class NutritionTable {
+
+    public static final int CALORIES = 0;
+    public static final int FAT = 1;
+    public static final int SATURATED_FAT = 2;
+    public static final int SODIUM = 3;
+    public static final int CARBOHYDRATES = 4;
+    public static final int SUGARS = 5;
+    public static final int PROTEIN = 6;
+    public static final int COLUMN_COUNT = 7;
+    public static final int NOT_FOUND = -1;
+
+    private final String[] titles;
+    private final float[][] columns;
+    private final int[] lessThanMask;
+    private final int[] slots;
+    private final int slotMask;
+
+    public NutritionTable(String[] titles, float[][] columns, int[] lessThanMask) {
+        this.titles = titles;
+        this.columns = columns;
+        this.lessThanMask = lessThanMask;
+        int capacity = Integer.highestOneBit(Math.max(titles.length, 1) * 2 - 1) << 1;
+        slots = new int[capacity];
+        slotMask = capacity - 1;
+        // Later rows win, matching the old linear scan which kept the last match
+        for (int row = 0; row < titles.length; row++) {
+            insert(row);
+        }
+    }
+
+    private int slotFor(String title) {
+        // Fibonacci hashing spreads titles that only differ in their last characters
+        int hash = title.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & slotMask;
+    }
+
+    private void insert(int row) {
+        String title = titles[row];
+        int slot = slotFor(title);
+        while (slots[slot] != 0 && !titles[slots[slot] - 1].equals(title)) {
+            slot = (slot + 1) & slotMask;
+        }
+        slots[slot] = row + 1;
+    }
+
+    public int rowOf(String title) {
+        if (title == null) {
+            return NOT_FOUND;
+        }
+        int slot = slotFor(title);
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            if (titles[entry - 1].equals(title)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return NOT_FOUND;
+    }
+
+    // Number of slots inspected to resolve a title, used to check the index stays flat
+    int probes(String title) {
+        int slot = slotFor(title);
+        int probes = 1;
+        while (slots[slot] != 0 && !titles[slots[slot] - 1].equals(title)) {
+            slot = (slot + 1) & slotMask;
+            probes++;
+        }
+        return probes;
+    }
+
+    public int size() {
+        return titles.length;
+    }
+
+    public String getTitle(int row) {
+        return titles[row];
+    }
+
+    public float get(int row, int column) {
+        return columns[column][row];
+    }
+
+    public boolean isLessThan(int row, int column) {
+        return (lessThanMask[row] & (1 << column)) != 0;
+    }
+
+    public String format(int row, int column) {
+        String value = formatValue(columns[column][row]);
+        return isLessThan(row, column) ? "<" + value : value;
+    }
+
+    public static String formatValue(float value) {
+        int whole = (int) value;
+        return whole == value ? String.valueOf(whole) : String.valueOf(value);
+    }
+}
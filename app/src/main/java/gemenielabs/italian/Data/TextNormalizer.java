@@ -0,0 +1,37 @@
+package gemenielabs.italian.Data;
+
+import java.text.Normalizer;
+
+/**
+ * Folds menu text into comparison keys, shared by the nutrition matching and the menu search.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    // Lower case, accents dropped, anything that isn't a letter or digit becomes a single space
+    public static String normalize(CharSequence text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int length = normalized.length();
+        if (length > 0 && normalized.charAt(length - 1) == ' ') {
+            normalized.setLength(length - 1);
+        }
+        return normalized.toString();
+    }
+}
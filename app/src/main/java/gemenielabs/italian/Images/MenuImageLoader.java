@@ -0,0 +1,79 @@
+package gemenielabs.italian.Images;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.widget.ImageView;
+
+import com.squareup.picasso.LruCache;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
+
+import gemenielabs.italian.R;
+
+/**
+ * Loads menu photos on Picasso's background pool, downsampled to the size they are shown at.
+ * Decoded bitmaps stay in one memory-budgeted LRU cache, keyed by drawable and target size, so
+ * scrolling back to a row or reopening a category does not decode again.
+ */
+public final class MenuImageLoader {
+
+    // Share of the app's heap that decoded menu photos may use
+    private static final int CACHE_FRACTION = 8;
+
+    private static volatile Picasso picasso;
+
+    private MenuImageLoader() {
+    }
+
+    public static Picasso get(Context context) {
+        Picasso result = picasso;
+        if (result == null) {
+            synchronized (MenuImageLoader.class) {
+                result = picasso;
+                if (result == null) {
+                    Context appContext = context.getApplicationContext();
+                    result = new Picasso.Builder(appContext)
+                            .memoryCache(new LruCache(getCacheSize(appContext)))
+                            .build();
+                    picasso = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    static int getCacheSize(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return activityManager.getMemoryClass() * 1024 * 1024 / CACHE_FRACTION;
+    }
+
+    // Menu rows are a fixed size, so the request and its cache key are known before layout
+    public static RequestCreator thumbnail(Context context, int drawable) {
+        return get(context).load(drawable)
+                .resizeDimen(R.dimen.menu_row_image, R.dimen.menu_row_image)
+                .centerInside()
+                .onlyScaleDown();
+    }
+
+    public static void loadThumbnail(ImageView view, int drawable) {
+        if (drawable == 0) {
+            cancel(view);
+            view.setImageDrawable(null);
+            return;
+        }
+        thumbnail(view.getContext(), drawable).into(view);
+    }
+
+    // Detail screens show one photo, decoded to the view's measured size
+    public static void load(ImageView view, int drawable) {
+        if (drawable == 0) {
+            view.setImageDrawable(null);
+            return;
+        }
+        get(view.getContext()).load(drawable).fit().centerInside().into(view);
+    }
+
+    public static void cancel(ImageView view) {
+        get(view.getContext()).cancelRequest(view);
+    }
+}
@@ -0,0 +1,108 @@
+package gemenielabs.italian.Images;
+
+import android.content.Context;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.squareup.picasso.Picasso;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.R;
+
+/**
+ * Warms the menu image cache at low priority: the rows just past the visible ones in the scroll
+ * direction, and the first rows of the categories next to the one on screen. Prefetches share
+ * one tag so a category switch or a closing screen cancels them together, and they stop once
+ * their share of the cache is used.
+ */
+public final class MenuImagePrefetcher extends RecyclerView.OnScrollListener {
+
+    // Rows past the visible ones to decode ahead of a scroll
+    private static final int ROWS_AHEAD = 4;
+    // Rows at the top of each neighbouring category
+    private static final int CATEGORY_ROWS = 3;
+    // Share of the image cache that prefetched thumbnails may fill
+    private static final int BUDGET_FRACTION = 4;
+
+    private final Context context;
+    private final Object tag = new Object();
+    private final int maxPrefetches;
+    // Catalog indexes already requested since the last category switch
+    private final BitSet requested = new BitSet();
+    private int requestCount;
+    private List<MenuItem> items = Collections.emptyList();
+
+    public MenuImagePrefetcher(Context context) {
+        this.context = context.getApplicationContext();
+        int side = this.context.getResources().getDimensionPixelSize(R.dimen.menu_row_image);
+        // Thumbnails decode to ARGB_8888, at most a full row image each
+        maxPrefetches = MenuImageLoader.getCacheSize(this.context) / BUDGET_FRACTION / (side * side * 4);
+    }
+
+    // shown is the category as listed, which filters and sorting can reorder
+    public void setCategory(MenuCatalog catalog, String key, List<MenuItem> shown) {
+        cancel();
+        items = shown;
+        List<String> keys = catalog.getCategoryKeys();
+        int index = keys.indexOf(key);
+        if (index + 1 < keys.size()) {
+            prefetchTop(catalog.getItems(keys.get(index + 1)));
+        }
+        if (index > 0) {
+            prefetchTop(catalog.getItems(keys.get(index - 1)));
+        }
+    }
+
+    private void prefetchTop(List<MenuItem> category) {
+        for (int i = 0; i < Math.min(CATEGORY_ROWS, category.size()); i++) {
+            prefetch(category.get(i));
+        }
+    }
+
+    // Also called with dy == 0 after a layout, which primes the rows below the first screen
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (dy >= 0) {
+            int last = layoutManager.findLastVisibleItemPosition();
+            if (last == RecyclerView.NO_POSITION) {
+                return;
+            }
+            for (int i = last + 1; i <= last + ROWS_AHEAD && i < items.size(); i++) {
+                prefetch(items.get(i));
+            }
+        } else {
+            int first = layoutManager.findFirstVisibleItemPosition();
+            for (int i = first - 1; i >= first - ROWS_AHEAD && i >= 0; i--) {
+                prefetch(items.get(i));
+            }
+        }
+    }
+
+    private void prefetch(MenuItem item) {
+        if (item.thumbnail == 0 || requested.get(item.index) || requestCount >= maxPrefetches) {
+            return;
+        }
+        requested.set(item.index);
+        requestCount++;
+        MenuImageLoader.thumbnail(context, item.thumbnail)
+                .priority(Picasso.Priority.LOW)
+                .tag(tag)
+                .fetch();
+    }
+
+    public void cancel() {
+        MenuImageLoader.get(context).cancelTag(tag);
+        requested.clear();
+        requestCount = 0;
+    }
+}
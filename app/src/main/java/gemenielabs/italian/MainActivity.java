@@ -13,8 +13,11 @@ import android.location.LocationListener;
 import android.location.LocationManager;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.Log;
 import android.view.*;
+import android.widget.SearchView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.core.app.ActivityCompat;
@@ -32,31 +35,56 @@ import com.google.android.gms.location.LocationResult;
 import com.google.android.gms.location.LocationServices;
 
 import gemenielabs.italian.Adapters.AllMenuItemsAdapter;
-import gemenielabs.italian.Data.ItemLists;
 import gemenielabs.italian.Data.LocationHelper;
-import gemenielabs.italian.Data.NutritionInfo;
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Images.MenuImagePrefetcher;
+import gemenielabs.italian.Data.DietPreference;
+import gemenielabs.italian.Data.NutritionTable;
+import gemenielabs.italian.Search.MenuFilterIndex;
+import gemenielabs.italian.Search.MenuSearchIndex;
 
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 public class MainActivity extends Activity {
     private AllMenuItemsAdapter myadapter;
     private RecyclerView menuItemDisplay;
     private DownloadLocationReceiver locationReceiver;
-    public static List<String> titleList;
-    public static List<Integer> imageList;
-    public static List<String> descriptionList;
+    private List<MenuItem> menuItems;
+    private MenuImagePrefetcher imagePrefetcher;
     public static Location customerLocation;
     public static double custLat;
     public static double custLong;
     public static final String LOCATIONDATA = "locationdata";
     public static final String BROADCASTACTION = "broadcastaction";
     private static final String CUSTOMERLOCATION = "customerlocation";
+    private static final int RECYCLED_ROWS = 12;
+    private static final int PRE_INFLATED_ROWS = 3;
+    // Limits behind the filter menu items, the price is in cents
+    private static final float CALORIE_LIMIT = 400;
+    private static final float SODIUM_LIMIT = 1000;
+    private static final float PROTEIN_MINIMUM = 20;
+    private static final float PRICE_LIMIT = 1000;
+    private int sortKey = MenuFilterIndex.MENU_ORDER;
+    private boolean sortDescending;
+    private final BitSet activeFilters = new BitSet();
+    // Scratch sets of catalog indexes, refilled in place on every category switch or search
+    private final BitSet matches = new BitSet();
+    private final BitSet rangeMatches = new BitSet();
+    // MenuItem allergen bits hidden from the lists, kept across launches
+    private int avoided;
     public static final String PHONE = "phone", ADDRESS = "address", OPENCLOSE = "open_close",
             HOURS = "hours", LAT = "lat", LNG = "lng", PHOTOS = "photo", NAME = "name";
     private Boolean newSave;
     int mId;
+    // The category on screen, menu actions like the cart or the map leave it in place
+    private int categoryId = R.id.pizza_menu;
+    private String categoryKey = "pizza";
+    // The query whose results are on screen, null while the category is
+    private String searchQuery;
     ViewGroup storeInformation, mainFrame;
     public String[] permissions = {Manifest.permission.ACCESS_FINE_LOCATION, Manifest.permission.CALL_PHONE};
 
@@ -66,27 +94,67 @@ public class MainActivity extends Activity {
         getWindow().requestFeature(Window.FEATURE_ACTION_BAR);
         setContentView(R.layout.main);
 
-        // Load nutrition information
-        new NutritionInfo().loadNutritionInformation();
-
         locationInformation();  // Initialize location services
 
         // Get the selected menu item ID
         mId = getIntent().getIntExtra(AllMenuItemsAdapter.ID, R.id.pizza_menu);
+        avoided = DietPreference.getAvoided(this);
+
+        // Decode upcoming rows and neighbouring categories while the user reads the current one
+        imagePrefetcher = new MenuImagePrefetcher(this);
+        menuItemDisplay = findViewById(R.id.recyclerview);
+        menuItemDisplay.addOnScrollListener(imagePrefetcher);
 
-        getLists(); // Get the lists based on the selected menu item
-        getAdapter(); // Set up the adapter for the RecyclerView
+        // Read the menu catalog in the background, once per process
+        MenuCatalog.load(this, catalog -> {
+            getLists(); // Get the lists based on the selected menu item
+            if (myadapter == null) {
+                // A menu action rather than a category was asked for, show the default category under it
+                refreshCategory();
+            }
+        });
 
         storeInformation = findViewById(R.id.store_information);
         mainFrame = findViewById(R.id.main_frame);
         setupTransitions(); // Set up the animation transitions
     }
 
+    @Override
+    protected void onDestroy() {
+        imagePrefetcher.cancel();
+        super.onDestroy();
+    }
+
+    // One adapter for the life of the screen, a category switch only diffs in the new rows
     public void getAdapter() {
-        menuItemDisplay = findViewById(R.id.recyclerview);
-        myadapter = new AllMenuItemsAdapter(mId, this);
-        menuItemDisplay.setAdapter(myadapter);
+        if (myadapter != null) {
+            myadapter.submitCategory(categoryId, menuItems, () -> menuItemDisplay.scrollToPosition(0));
+            return;
+        }
+        myadapter = new AllMenuItemsAdapter(categoryId, this, menuItems);
         menuItemDisplay.setLayoutManager(new LinearLayoutManager(this));
+        // Rows leaving in a category switch stay inflated for the rows coming in
+        RecyclerView.RecycledViewPool viewPool = new RecyclerView.RecycledViewPool();
+        viewPool.setMaxRecycledViews(0, RECYCLED_ROWS);
+        menuItemDisplay.setRecycledViewPool(viewPool);
+        menuItemDisplay.setAdapter(myadapter);
+        preInflateRows(viewPool);
+    }
+
+    // Inflates spare rows one at a time while the main thread is idle
+    private void preInflateRows(RecyclerView.RecycledViewPool viewPool) {
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            private int inflated;
+
+            @Override
+            public boolean queueIdle() {
+                if (isDestroyed() || viewPool.getRecycledViewCount(0) >= PRE_INFLATED_ROWS) {
+                    return false;
+                }
+                viewPool.putRecycledView(myadapter.createViewHolder(menuItemDisplay, 0));
+                return ++inflated < PRE_INFLATED_ROWS;
+            }
+        });
     }
 
     public void getPermissions() {
@@ -99,9 +167,74 @@ public class MainActivity extends Activity {
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.main, menu);
+        setupSearch(menu.findItem(R.id.search_menu));
+        menu.findItem(R.id.avoid_dairy).setChecked((avoided & MenuItem.DAIRY) != 0);
+        menu.findItem(R.id.avoid_gluten).setChecked((avoided & MenuItem.GLUTEN) != 0);
+        menu.findItem(R.id.avoid_pork).setChecked((avoided & MenuItem.PORK) != 0);
+        menu.findItem(R.id.avoid_shellfish).setChecked((avoided & MenuItem.SHELLFISH) != 0);
+        menu.findItem(R.id.avoid_meat).setChecked((avoided & MenuItem.MEAT) != 0);
         return true;
     }
 
+    // Results replace the category list while searching, closing the search restores it
+    private void setupSearch(android.view.MenuItem searchItem) {
+        SearchView searchView = (SearchView) searchItem.getActionView();
+        searchView.setQueryHint(getString(R.string.search_hint));
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                searchView.clearFocus();
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                showSearchResults(newText);
+                return true;
+            }
+        });
+        searchItem.setOnActionExpandListener(new android.view.MenuItem.OnActionExpandListener() {
+            @Override
+            public boolean onMenuItemActionExpand(android.view.MenuItem item) {
+                return true;
+            }
+
+            @Override
+            public boolean onMenuItemActionCollapse(android.view.MenuItem item) {
+                searchQuery = null;
+                refreshCategory();
+                return true;
+            }
+        });
+    }
+
+    private void showSearchResults(String query) {
+        if (myadapter == null || query.trim().isEmpty()) {
+            return;
+        }
+        searchQuery = query;
+        imagePrefetcher.cancel();
+        MenuCatalog catalog = MenuCatalog.get(this);
+        List<MenuItem> hits = MenuSearchIndex.get(catalog).search(query);
+        if (!activeFilters.isEmpty() || avoided != 0) {
+            // The filters and avoided allergens hold while searching, the hits keep their ranking
+            matches.clear();
+            for (MenuItem hit : hits) {
+                matches.set(hit.index);
+            }
+            applyFilters(MenuFilterIndex.get(catalog));
+            List<MenuItem> kept = new ArrayList<>(matches.cardinality());
+            for (MenuItem hit : hits) {
+                if (matches.get(hit.index)) {
+                    kept.add(hit);
+                }
+            }
+            hits = kept;
+        }
+        menuItems = hits;
+        myadapter.submitCategory(categoryId, menuItems, () -> menuItemDisplay.scrollToPosition(0));
+    }
+
     public void showMap() {
         LocationHelper locationHelper = new LocationHelper();
 
@@ -162,51 +295,97 @@ public class MainActivity extends Activity {
         }
 
     @Override
-    public boolean onOptionsItemSelected(MenuItem item) {
+    public boolean onOptionsItemSelected(android.view.MenuItem item) {
         int itemId = item.getItemId();
+        if (itemId == R.id.search_menu || itemId == R.id.filter_menu) {
+            return super.onOptionsItemSelected(item);
+        }
+        if (selectFilter(item)) {
+            if (searchQuery != null) {
+                showSearchResults(searchQuery);
+            } else {
+                refreshCategory();
+            }
+            return true;
+        }
         mId = itemId;
         getLists(); // Update the lists based on the selected menu item
-        getAdapter(); // Update the adapter for the RecyclerView
         return super.onOptionsItemSelected(item);
     }
     
+    // Sort items are a single choice group, filter items toggle
+    private boolean selectFilter(android.view.MenuItem item) {
+        int itemId = item.getItemId();
+        if (itemId == R.id.sort_menu_order || itemId == R.id.sort_calories
+                || itemId == R.id.sort_protein || itemId == R.id.sort_price) {
+            item.setChecked(true);
+            sortDescending = itemId == R.id.sort_protein;
+            if (itemId == R.id.sort_calories) {
+                sortKey = NutritionTable.CALORIES;
+            } else if (itemId == R.id.sort_protein) {
+                sortKey = NutritionTable.PROTEIN;
+            } else if (itemId == R.id.sort_price) {
+                sortKey = MenuFilterIndex.PRICE;
+            } else {
+                sortKey = MenuFilterIndex.MENU_ORDER;
+            }
+            return true;
+        }
+        int allergen = 0;
+        if (itemId == R.id.avoid_dairy) {
+            allergen = MenuItem.DAIRY;
+        } else if (itemId == R.id.avoid_gluten) {
+            allergen = MenuItem.GLUTEN;
+        } else if (itemId == R.id.avoid_pork) {
+            allergen = MenuItem.PORK;
+        } else if (itemId == R.id.avoid_shellfish) {
+            allergen = MenuItem.SHELLFISH;
+        } else if (itemId == R.id.avoid_meat) {
+            allergen = MenuItem.MEAT;
+        }
+        if (allergen != 0) {
+            item.setChecked(!item.isChecked());
+            avoided = item.isChecked() ? avoided | allergen : avoided & ~allergen;
+            DietPreference.setAvoided(this, avoided);
+            return true;
+        }
+        int filter;
+        if (itemId == R.id.filter_calories) {
+            filter = NutritionTable.CALORIES;
+        } else if (itemId == R.id.filter_sodium) {
+            filter = NutritionTable.SODIUM;
+        } else if (itemId == R.id.filter_protein) {
+            filter = NutritionTable.PROTEIN;
+        } else if (itemId == R.id.filter_price) {
+            filter = MenuFilterIndex.PRICE;
+        } else {
+            return false;
+        }
+        item.setChecked(!item.isChecked());
+        activeFilters.set(filter, item.isChecked());
+        return true;
+    }
+
     public void getLists() {
-        // Clear previous lists
-        titleList = new ArrayList<>();
-        imageList = new ArrayList<>();
-        descriptionList = new ArrayList<>();
-    
         // Update lists based on the selected menu item
         switch (mId) {
             case R.id.pizza_menu:
-                titleList = ItemLists.getPizzaTitleList();
-                imageList = ItemLists.getPizzaList();
-                descriptionList = ItemLists.getPizzaDescriptionList();
+                showCategory("pizza");
                 break;
             case R.id.appetizers_menu:
-                titleList = ItemLists.getAppetizerTitleList();
-                imageList = ItemLists.getAppetizersList();
-                descriptionList = ItemLists.getAppetizerDescriptionList();
+                showCategory("appetizers");
                 break;
             case R.id.sandwiches_menu:
-                titleList = ItemLists.getSandwichesTitleList();
-                imageList = ItemLists.getSandwichesList();
-                descriptionList = ItemLists.getSandwichesDescriptionList();
+                showCategory("sandwiches");
                 break;
             case R.id.pastas_menu:
-                titleList = ItemLists.getPastaTitleList();
-                imageList = ItemLists.getPastasList();
-                descriptionList = ItemLists.getPastaDescriptionList();
+                showCategory("pastas");
                 break;
             case R.id.salads_menu:
-                titleList = ItemLists.getSaladsAndCalzoneTitleList();
-                imageList = ItemLists.getSaladsAndCalzoneList();
-                descriptionList = ItemLists.getSaladsAndCalzoneDescriptionList();
+                showCategory("salads");
                 break;
             case R.id.deserts_menu:
-                titleList = ItemLists.getDesertTitleList();
-                imageList = ItemLists.getDesertsList();
-                descriptionList = ItemLists.getDesertDescriptionList();
+                showCategory("deserts");
                 break;
             case R.id.order_menu:
                 startActivity(new Intent(this, CheckoutActivity.class));
@@ -218,6 +397,53 @@ public class MainActivity extends Activity {
                 break;
         }
     }
+
+    private void showCategory(String key) {
+        categoryId = mId;
+        categoryKey = key;
+        refreshCategory();
+    }
+
+    // Lists the category on screen again, after a switch or a filter, sort or allergen change
+    private void refreshCategory() {
+        imagePrefetcher.cancel();
+        setCategory(categoryKey);
+        getAdapter();
+    }
+
+    private void setCategory(String key) {
+        MenuCatalog catalog = MenuCatalog.get(this);
+        menuItems = catalog.getItems(key);
+        if (sortKey != MenuFilterIndex.MENU_ORDER || !activeFilters.isEmpty() || avoided != 0) {
+            MenuFilterIndex filterIndex = MenuFilterIndex.get(catalog);
+            filterIndex.category(key, matches);
+            applyFilters(filterIndex);
+            menuItems = filterIndex.select(matches, sortKey, sortDescending);
+        }
+        imagePrefetcher.setCategory(catalog, key, menuItems);
+    }
+
+    // Narrows matches to the checked filters and clears the items with an avoided allergen
+    private void applyFilters(MenuFilterIndex filterIndex) {
+        for (int filter = activeFilters.nextSetBit(0); filter >= 0; filter = activeFilters.nextSetBit(filter + 1)) {
+            switch (filter) {
+                case NutritionTable.CALORIES:
+                    filterIndex.range(filter, 0, Math.nextDown(CALORIE_LIMIT), rangeMatches);
+                    break;
+                case NutritionTable.SODIUM:
+                    filterIndex.range(filter, 0, Math.nextDown(SODIUM_LIMIT), rangeMatches);
+                    break;
+                case NutritionTable.PROTEIN:
+                    filterIndex.range(filter, PROTEIN_MINIMUM, Float.MAX_VALUE, rangeMatches);
+                    break;
+                default:
+                    filterIndex.range(filter, 0, Math.nextDown(PRICE_LIMIT), rangeMatches);
+                    break;
+            }
+            matches.and(rangeMatches);
+        }
+        filterIndex.exclude(matches, avoided);
+    }
     
     private void setupTransitions() {
         // Set up animation transitions
@@ -5,7 +5,6 @@ import android.animation.ObjectAnimator;
 import android.app.Activity;
 import android.content.Intent;
 import android.os.Bundle;
-import android.view.MenuItem;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
@@ -14,11 +13,15 @@ import android.widget.TextView;
 import androidx.core.app.NavUtils;
 
 import gemenielabs.italian.Adapters.AllMenuItemsAdapter;
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
 import gemenielabs.italian.Data.NutritionHelper;
+import gemenielabs.italian.Images.MenuImageLoader;
 
 
 public class NutritionInfoActivity extends Activity {
 
+    private MenuItem menuItem;
     private String listTitle;
     private String description;
     private int image;
@@ -30,9 +33,10 @@ public class NutritionInfoActivity extends Activity {
 
         // Retrieve data from intent
         Intent intent = getIntent();
-        listTitle = intent.getStringExtra(AllMenuItemsAdapter.TITLE);
-        description = intent.getStringExtra(AllMenuItemsAdapter.DESCRIPTION);
-        image = intent.getIntExtra(AllMenuItemsAdapter.IMAGE, 0);
+        menuItem = MenuCatalog.get(this).getItemById(intent.getIntExtra(AllMenuItemsAdapter.ITEM_ID, 0));
+        listTitle = menuItem.title;
+        description = menuItem.description;
+        image = menuItem.drawable;
 
         // Set click listener for nutrition order button
         findViewById(R.id.nutrition_order_button).setOnClickListener(view -> nutritionOrder(view));
@@ -46,7 +50,7 @@ public class NutritionInfoActivity extends Activity {
 
     public void setData() {
         // Create a new instance of NutritionHelper
-        NutritionHelper nutritionHelper = new NutritionHelper(listTitle);
+        NutritionHelper nutritionHelper = new NutritionHelper(MenuCatalog.get(this).getNutritionTable(), menuItem);
 
         // Initialize TextViews and ImageView
         TextView textViewcalories = findViewById(R.id.calories);
@@ -64,7 +68,7 @@ public class NutritionInfoActivity extends Activity {
         nutritionHelper.searchForNutritionInfo();
 
         // Set nutrition data to TextViews
-        if (nutritionHelper.getCalories().equals("0")) {
+        if (!nutritionHelper.hasNutritionInfo() || nutritionHelper.getCalories().equals("0")) {
             textViewprotien.setText("Nutrition Information Not Available");
         } else {
             textViewcalories.setText(nutritionHelper.getCalories());
@@ -79,7 +83,7 @@ public class NutritionInfoActivity extends Activity {
         // Set title, description, and image
         titleOfSpecificItem.setText(listTitle);
         descriptionOfSpecificItem.setText(description);
-        imageOfSpecificItem.setImageResource(image);
+        MenuImageLoader.load(imageOfSpecificItem, image);
 
         // Define and start animations
         ObjectAnimator animateFadeCalorie = ObjectAnimator.ofFloat(textViewcalories, "alpha", 1f);
@@ -103,7 +107,7 @@ public class NutritionInfoActivity extends Activity {
     }
 
     @Override
-    public boolean onOptionsItemSelected(MenuItem item) {
+    public boolean onOptionsItemSelected(android.view.MenuItem item) {
         if (item.getItemId() == android.R.id.home) {// Navigate up to the previous activity
             NavUtils.navigateUpFromSameTask(this);
             return true;
@@ -113,8 +117,7 @@ public class NutritionInfoActivity extends Activity {
 
     public void nutritionOrder(View v) {
         // Check if it's a valid order
-        if (getIntent().getIntExtra(AllMenuItemsAdapter.ID, 0) == R.id.deserts_menu
-                && getIntent().getIntExtra(AllMenuItemsAdapter.POSITION, 0) == 4) {
+        if (!menuItem.isOrderable()) {
             return;
         }
 
@@ -122,12 +125,8 @@ public class NutritionInfoActivity extends Activity {
         Intent intent = new Intent(this, OrderActivity.class);
 
         // Set extra data for the intent
-        int position = getIntent().getIntExtra(AllMenuItemsAdapter.POSITION, 0);
         intent.putExtra(AllMenuItemsAdapter.ID, getIntent().getIntExtra(AllMenuItemsAdapter.ID, 0));
-        intent.putExtra(AllMenuItemsAdapter.POSITION, position);
-        intent.putExtra(AllMenuItemsAdapter.TITLE, (String) MainActivity.titleList.get(position));
-        intent.putExtra(AllMenuItemsAdapter.DESCRIPTION, (String) MainActivity.descriptionList.get(position));
-        intent.putExtra(AllMenuItemsAdapter.IMAGE, (int) MainActivity.imageList.get(position));
+        intent.putExtra(AllMenuItemsAdapter.ITEM_ID, menuItem.id);
 
         // Start the OrderActivity
         startActivity(intent);
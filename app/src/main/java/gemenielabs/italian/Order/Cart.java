@@ -0,0 +1,144 @@
+package gemenielabs.italian.Order;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import gemenielabs.italian.Data.NutritionTable;
+
+/**
+ * The lines of the cart in the order they were added. Lines ordering the same thing are one line
+ * with a quantity: each line's configuration hash maps to its position, so adding a line finds
+ * its twin without looking through the cart. The price and nutrition totals are kept as lines
+ * come and go, so showing them never walks the cart.
+ */
+public final class Cart {
+
+    public static final int MAX_QUANTITY = 99;
+    // What add returns when the line would go past MAX_QUANTITY
+    public static final int NOT_ADDED = -1;
+
+    private final ArrayList<CartLine> lines = new ArrayList<>();
+    private final List<CartLine> view = Collections.unmodifiableList(lines);
+    // Configuration hash to position, for the line that owns the hash
+    private final HashMap<Long, Integer> positions = new HashMap<>();
+    private long totalCents;
+    // Doubles, so rounding from many adds and removes stays far below what is shown
+    private final double[] nutrition = new double[NutritionTable.COLUMN_COUNT];
+
+    public int size() {
+        return lines.size();
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public CartLine get(int position) {
+        return lines.get(position);
+    }
+
+    // Live, read-only view in cart order
+    public List<CartLine> lines() {
+        return view;
+    }
+
+    /**
+     * Adds {@code line}, or its quantity to the line already ordering the same thing. Returns the
+     * position of the line that holds it; it is {@code size() - 1} after an insert. Returns
+     * {@link #NOT_ADDED} and leaves the cart as it was if the line would hold more than
+     * {@link #MAX_QUANTITY}, like {@link #step} refusing to go past it.
+     */
+    public int add(CartLine line) {
+        if (line.getQuantity() > MAX_QUANTITY) {
+            return NOT_ADDED;
+        }
+        Integer position = positions.get(line.configurationHash());
+        if (position != null) {
+            CartLine twin = lines.get(position);
+            if (twin.sameConfiguration(line)) {
+                int quantity = twin.getQuantity() + line.getQuantity();
+                if (quantity > MAX_QUANTITY) {
+                    return NOT_ADDED;
+                }
+                account(twin, line.getQuantity());
+                twin.setQuantity(quantity);
+                return position;
+            }
+        }
+        lines.add(line);
+        account(line, line.getQuantity());
+        // Two configurations sharing a hash stay separate lines, the first keeps the index entry
+        if (position == null) {
+            positions.put(line.configurationHash(), lines.size() - 1);
+        }
+        return lines.size() - 1;
+    }
+
+    // Returns false if the quantity is already at its limit, or 1 when stepping down
+    public boolean step(int position, int delta) {
+        CartLine line = lines.get(position);
+        int quantity = line.getQuantity() + delta;
+        if (quantity < 1 || quantity > MAX_QUANTITY) {
+            return false;
+        }
+        account(line, delta);
+        line.setQuantity(quantity);
+        return true;
+    }
+
+    public CartLine remove(int position) {
+        CartLine removed = lines.remove(position);
+        account(removed, -removed.getQuantity());
+        if (lines.isEmpty()) {
+            resetTotals();
+        }
+        Long hash = removed.configurationHash();
+        if (Integer.valueOf(position).equals(positions.get(hash))) {
+            positions.remove(hash);
+        }
+        // Lines after it move up one
+        for (int i = position; i < lines.size(); i++) {
+            long key = lines.get(i).configurationHash();
+            Integer indexed = positions.get(key);
+            if (indexed != null && indexed == i + 1) {
+                positions.put(key, i);
+            } else if (indexed == null) {
+                // A line that lost a hash collision can own the hash now
+                positions.put(key, i);
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        lines.clear();
+        positions.clear();
+        resetTotals();
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    // Sum of the NutritionTable column over every unit in the cart, lines without nutrition add 0
+    public float getNutrition(int column) {
+        return (float) nutrition[column];
+    }
+
+    private void account(CartLine line, int quantity) {
+        totalCents += line.unitCents * quantity;
+        if (line.hasNutrition()) {
+            for (int column = 0; column < nutrition.length; column++) {
+                nutrition[column] += (double) line.getNutrition(column) * quantity;
+            }
+        }
+    }
+
+    private void resetTotals() {
+        totalCents = 0;
+        Arrays.fill(nutrition, 0);
+    }
+}
@@ -0,0 +1,195 @@
+package gemenielabs.italian.Order;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the cart behind the screen's back. Each change is encoded on the caller's thread, which
+ * is cheap, and written by one background thread once the changes stop for a moment, so a burst
+ * of taps is one write. A flush writes whatever is waiting right away, a clear deletes the file.
+ * Writes go through {@link CartStore}, so a process killed at any point leaves the last snapshot
+ * that was written.
+ */
+public final class CartAutosave {
+
+    public static final long DEBOUNCE_MILLIS = 500;
+
+    private static final Object LOCK = new Object();
+    private static volatile CartAutosave instance;
+
+    private final CartStore store;
+    private final ScheduledExecutorService executor;
+    private final long debounceMillis;
+
+    // Guarded by this: the newest snapshot not yet written, the one being written, the queued write
+    private byte[] pending;
+    private byte[] writing;
+    private Future<?> scheduled;
+    // Guarded by this: a clear is queued, the file still holds the cart it empties
+    private boolean clearing;
+    // Guarded by this: bumped by every clear, a write from before it must not bring its cart back
+    private int generation;
+
+    public CartAutosave(CartStore store, ScheduledExecutorService executor, long debounceMillis) {
+        this.store = store;
+        this.executor = executor;
+        this.debounceMillis = debounceMillis;
+    }
+
+    public static CartAutosave get(File file) {
+        CartAutosave result = instance;
+        if (result == null) {
+            synchronized (LOCK) {
+                result = instance;
+                if (result == null) {
+                    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+                    // Every change cancels the last timer, the cancelled ones needn't wait in the queue
+                    executor.setRemoveOnCancelPolicy(true);
+                    result = new CartAutosave(new CartStore(file), executor, DEBOUNCE_MILLIS);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** The cart changed, its lines will be written after the debounce unless more changes come first. */
+    public void changed(List<CartLine> lines) {
+        byte[] snapshot = CartStore.encode(lines);
+        synchronized (this) {
+            pending = snapshot;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            scheduled = executor.schedule(this::write, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Writes any waiting change now, without blocking the caller. */
+    public synchronized void flush() {
+        if (pending == null) {
+            return;
+        }
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = executor.submit(this::write);
+    }
+
+    /**
+     * Writes the lines before returning, after any write already queued. For the rare change
+     * that must be on disk before the caller goes on, it blocks on the write and its sync.
+     */
+    public void save(List<CartLine> lines) throws IOException {
+        byte[] snapshot = CartStore.encode(lines);
+        Future<Boolean> done;
+        synchronized (this) {
+            pending = snapshot;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            done = executor.submit(this::write);
+            scheduled = done;
+        }
+        try {
+            if (!done.get()) {
+                throw new IOException("Could not save the cart");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /** Empties the stored cart, dropping any change still waiting to be written. */
+    public synchronized void clear() {
+        pending = null;
+        clearing = true;
+        generation++;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        // Queued behind a write already running, so the file it leaves is deleted too
+        executor.execute(this::delete);
+    }
+
+    private void delete() {
+        try {
+            store.clear();
+        } catch (IOException e) {
+            // An empty cart written over it is as good, unless a newer cart replaced it
+            synchronized (this) {
+                if (pending == null) {
+                    pending = CartStore.encode(Collections.<CartLine>emptyList());
+                }
+            }
+        } finally {
+            synchronized (this) {
+                clearing = false;
+            }
+        }
+    }
+
+    // False if the write failed, true when it succeeded or an earlier one already took the change
+    private boolean write() {
+        byte[] snapshot;
+        int writeGeneration;
+        synchronized (this) {
+            snapshot = pending;
+            pending = null;
+            scheduled = null;
+            writing = snapshot;
+            writeGeneration = generation;
+        }
+        if (snapshot == null) {
+            return true;
+        }
+        try {
+            store.write(snapshot);
+            return true;
+        } catch (IOException e) {
+            // Kept for the next change or flush to try again, unless a newer cart replaced it
+            // or the cart was cleared meanwhile
+            synchronized (this) {
+                if (pending == null && generation == writeGeneration) {
+                    pending = snapshot;
+                }
+            }
+            return false;
+        } finally {
+            synchronized (this) {
+                writing = null;
+            }
+        }
+    }
+
+    /**
+     * Adds the cart's lines to {@code lines} as of the last change, from memory while that
+     * change is still on its way to disk.
+     */
+    public void load(List<CartLine> lines) throws IOException {
+        byte[] snapshot;
+        synchronized (this) {
+            if (pending == null && clearing) {
+                return;
+            }
+            snapshot = pending != null ? pending : writing;
+        }
+        if (snapshot != null) {
+            CartStore.decode(snapshot, lines);
+        } else {
+            store.load(lines);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package gemenielabs.italian.Order;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * One line of the cart as data: the item, its size, crust and topping rows, the quantity, the
+ * unit price in cents and the customer's comments. The text shown for the line is rendered from
+ * these the first time it is needed and kept, so the cart can be re-priced, edited and stored
+ * without parsing display strings.
+ */
+public final class CartLine {
+
+    public static final int NO_CRUST = -1;
+    // Item id of a line kept only as its text, carried over from a cart saved before lines were data
+    public static final int TEXT_ONLY = -1;
+    public static final int FORMAT_VERSION = 1;
+
+    // 64-bit FNV-1a
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    public final int itemId;
+    public final int size;
+    public final int crust;
+    // OrderLine row kind and selection of each topping row, in the order they were added
+    private final int[] modifiers;
+    private int quantity;
+    public final long unitCents;
+    public final String comments;
+    // Estimated nutrition of one unit, null when the item has no nutrition record
+    private final float[] nutrition;
+    private CharSequence display;
+    private long hash;
+    private boolean hashed;
+
+    /** Names the parts of a line, the screen showing the cart knows its resources. */
+    public interface Labels {
+        String title(int itemId);
+
+        // Size, crust and topping names, by OrderLine row kind
+        String option(int itemId, int kind, int selection);
+
+        // Prefix of a row kind, e.g. "ADD " or "NO "
+        String direction(int kind);
+    }
+
+    public CartLine(int itemId, int size, int crust, int[] modifiers, int quantity, long unitCents,
+                    String comments, float[] nutrition) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity " + quantity);
+        }
+        this.itemId = itemId;
+        this.size = size;
+        this.crust = crust;
+        this.modifiers = modifiers.clone();
+        this.quantity = quantity;
+        this.unitCents = unitCents;
+        this.comments = comments == null ? "" : comments;
+        this.nutrition = nutrition == null ? null : nutrition.clone();
+    }
+
+    /** A line from an old cart: its saved text, shown as it was, and its price. */
+    public static CartLine textOnly(String text, long unitCents, float[] nutrition) {
+        return new CartLine(TEXT_ONLY, 0, NO_CRUST, new int[0], 1, unitCents, text, nutrition);
+    }
+
+    public static int modifier(int kind, int selection) {
+        return (kind << 16) | selection;
+    }
+
+    public static int kindOf(int modifier) {
+        return modifier >>> 16;
+    }
+
+    public static int selectionOf(int modifier) {
+        return modifier & 0xFFFF;
+    }
+
+    public int getModifierCount() {
+        return modifiers.length;
+    }
+
+    public int getModifier(int index) {
+        return modifiers[index];
+    }
+
+    /**
+     * Hash of what was ordered, leaving out the quantity and price: the item, size, crust,
+     * comments and the topping rows in sorted order, so adding the same toppings in another
+     * order makes the same line.
+     */
+    public long configurationHash() {
+        if (!hashed) {
+            int[] sorted = modifiers.clone();
+            Arrays.sort(sorted);
+            long h = mix(mix(mix(FNV_OFFSET, itemId), size), crust);
+            h = mix(h, sorted.length);
+            for (int modifier : sorted) {
+                h = mix(h, modifier);
+            }
+            for (int i = 0; i < comments.length(); i++) {
+                h = (h ^ comments.charAt(i)) * FNV_PRIME;
+            }
+            hash = h;
+            hashed = true;
+        }
+        return hash;
+    }
+
+    private static long mix(long h, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            h = (h ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    // Whether both lines order the same thing, the check behind a hash match
+    public boolean sameConfiguration(CartLine other) {
+        if (itemId != other.itemId || size != other.size || crust != other.crust
+                || modifiers.length != other.modifiers.length || !comments.equals(other.comments)) {
+            return false;
+        }
+        int[] mine = modifiers.clone();
+        int[] theirs = other.modifiers.clone();
+        Arrays.sort(mine);
+        Arrays.sort(theirs);
+        return Arrays.equals(mine, theirs);
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    // Quantities change through the Cart, which keeps its totals in step
+    void setQuantity(int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity " + quantity);
+        }
+        this.quantity = quantity;
+    }
+
+    public long getTotalCents() {
+        return unitCents * quantity;
+    }
+
+    public boolean hasNutrition() {
+        return nutrition != null;
+    }
+
+    // One unit's estimate for the NutritionTable column, 0 when there is none
+    public float getNutrition(int column) {
+        return nutrition == null ? 0f : nutrition[column];
+    }
+
+    // The item, size, crust, toppings and comments; the quantity is shown apart
+    public CharSequence getDisplay(Labels labels) {
+        if (display == null && itemId == TEXT_ONLY) {
+            display = comments;
+        } else if (display == null) {
+            StringBuilder text = new StringBuilder(labels.title(itemId))
+                    .append("     ").append(OrderLine.formatPrice(unitCents));
+            String sizeLabel = labels.option(itemId, OrderLine.SIZE, size);
+            if (sizeLabel != null) {
+                text.append('\n').append(sizeLabel);
+            }
+            if (crust != NO_CRUST) {
+                text.append('\n').append(labels.option(itemId, OrderLine.CRUST, crust));
+            }
+            for (int modifier : modifiers) {
+                text.append('\n').append(labels.direction(kindOf(modifier)))
+                        .append(labels.option(itemId, kindOf(modifier), selectionOf(modifier)));
+            }
+            if (!comments.isEmpty()) {
+                text.append('\n').append(comments);
+            }
+            display = text.toString();
+        }
+        return display;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(itemId);
+        out.writeByte(size);
+        out.writeByte(crust);
+        out.writeShort(modifiers.length);
+        for (int modifier : modifiers) {
+            out.writeInt(modifier);
+        }
+        out.writeShort(quantity);
+        out.writeLong(unitCents);
+        out.writeUTF(comments);
+        out.writeByte(nutrition == null ? 0 : nutrition.length);
+        if (nutrition != null) {
+            for (float value : nutrition) {
+                out.writeFloat(value);
+            }
+        }
+    }
+
+    public static CartLine read(DataInputStream in) throws IOException {
+        int itemId = in.readInt();
+        int size = in.readUnsignedByte();
+        int crust = in.readByte();
+        int[] modifiers = new int[in.readUnsignedShort()];
+        for (int i = 0; i < modifiers.length; i++) {
+            modifiers[i] = in.readInt();
+        }
+        int quantity = in.readUnsignedShort();
+        long unitCents = in.readLong();
+        String comments = in.readUTF();
+        int columns = in.readUnsignedByte();
+        float[] nutrition = null;
+        if (columns > 0) {
+            nutrition = new float[columns];
+            for (int column = 0; column < columns; column++) {
+                nutrition[column] = in.readFloat();
+            }
+        }
+        if (quantity < 1) {
+            throw new IOException("Corrupt cart line");
+        }
+        return new CartLine(itemId, size, crust, modifiers, quantity, unitCents, comments, nutrition);
+    }
+
+    // One line on its own, versioned, e.g. to pass from the order screen to checkout
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(FORMAT_VERSION);
+            write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static CartLine fromBytes(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readUnsignedByte() != FORMAT_VERSION) {
+            throw new IOException("Unknown cart line version");
+        }
+        return read(in);
+    }
+}
@@ -0,0 +1,114 @@
+package gemenielabs.italian.Order;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The cart kept on disk as one binary snapshot. A save writes the whole cart to a temporary file,
+ * syncs it once and renames it over the previous snapshot, so a reader only ever sees a complete
+ * cart: the old one if the save was cut short, the new one after the rename.
+ */
+public final class CartStore {
+
+    public static final String FILE = "cart.bin";
+
+    private static final int MAGIC = 0x43415254;
+    // Version 2 stores CartLine records, version 1 carts held display text and are not read
+    private static final int FORMAT_VERSION = 2;
+    private static final int CHECKSUM_SIZE = 8;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File file;
+    private final File temp;
+
+    public CartStore(File file) {
+        this.file = file;
+        this.temp = new File(file.getPath() + TEMP_SUFFIX);
+    }
+
+    // The cart as the bytes of a snapshot file, cheap enough to take on the main thread
+    public static byte[] encode(List<CartLine> lines) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeByte(CartLine.FORMAT_VERSION);
+            out.writeInt(lines.size());
+            for (CartLine line : lines) {
+                line.write(out);
+            }
+            // The checksum covers everything before it, a torn file never passes for a cart
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeLong(crc.getValue());
+        } catch (IOException e) {
+            // A stream into memory doesn't fail
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Replaces the stored cart with a snapshot from {@link #encode}. */
+    public synchronized void write(byte[] snapshot) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(temp)) {
+            stream.write(snapshot);
+            stream.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /** Adds the stored lines to {@code lines}, nothing if no cart has been saved. */
+    public synchronized void load(List<CartLine> lines) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        byte[] bytes = new byte[(int) file.length()];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(bytes);
+        }
+        decode(bytes, lines);
+    }
+
+    /** Adds the lines of a snapshot from {@link #encode} to {@code lines}. */
+    public static void decode(byte[] bytes, List<CartLine> lines) throws IOException {
+        int length = bytes.length - CHECKSUM_SIZE;
+        if (length < 0) {
+            throw new IOException("Corrupt cart file");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        in.skipBytes(length);
+        if (in.readLong() != crc.getValue()) {
+            throw new IOException("Corrupt cart file");
+        }
+
+        in = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+        if (in.readInt() != MAGIC || in.readUnsignedShort() != FORMAT_VERSION
+                || in.readUnsignedByte() != CartLine.FORMAT_VERSION) {
+            throw new IOException("Not a cart file");
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            lines.add(CartLine.read(in));
+        }
+    }
+
+    /** Deletes the stored cart, a later load adds nothing. */
+    public synchronized void clear() throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not delete " + file);
+        }
+    }
+}
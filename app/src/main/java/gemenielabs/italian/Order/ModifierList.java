@@ -0,0 +1,126 @@
+package gemenielabs.italian.Order;
+
+import java.util.Arrays;
+
+/**
+ * The option rows of one order line, stored column by column in parallel arrays that grow by
+ * half their capacity when full. Each row has its kind, selected choice, price in cents and the
+ * span of its text in the line's summary.
+ */
+public final class ModifierList {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] kinds;
+    private int[] selections;
+    private int[] prices;
+    private int[] textStarts;
+    private int[] textLengths;
+    private String[] labels;
+    private int size;
+
+    public ModifierList() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ModifierList(int capacity) {
+        capacity = Math.max(capacity, 1);
+        kinds = new int[capacity];
+        selections = new int[capacity];
+        prices = new int[capacity];
+        textStarts = new int[capacity];
+        textLengths = new int[capacity];
+        labels = new String[capacity];
+    }
+
+    // Returns the new row's index
+    public int add(int kind, int price, int textStart) {
+        if (size == kinds.length) {
+            grow();
+        }
+        kinds[size] = kind;
+        selections[size] = 0;
+        prices[size] = price;
+        textStarts[size] = textStart;
+        textLengths[size] = 0;
+        labels[size] = null;
+        return size++;
+    }
+
+    private void grow() {
+        int capacity = kinds.length + (kinds.length >> 1) + 1;
+        kinds = Arrays.copyOf(kinds, capacity);
+        selections = Arrays.copyOf(selections, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        textStarts = Arrays.copyOf(textStarts, capacity);
+        textLengths = Arrays.copyOf(textLengths, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Modifier " + index + " of " + size);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return kinds.length;
+    }
+
+    public int getKind(int index) {
+        checkIndex(index);
+        return kinds[index];
+    }
+
+    public int getSelection(int index) {
+        checkIndex(index);
+        return selections[index];
+    }
+
+    public int getPrice(int index) {
+        checkIndex(index);
+        return prices[index];
+    }
+
+    public String getLabel(int index) {
+        checkIndex(index);
+        return labels[index];
+    }
+
+    public int getTextStart(int index) {
+        checkIndex(index);
+        return textStarts[index];
+    }
+
+    public int getTextLength(int index) {
+        checkIndex(index);
+        return textLengths[index];
+    }
+
+    public void select(int index, int selection, String label) {
+        checkIndex(index);
+        selections[index] = selection;
+        labels[index] = label;
+    }
+
+    public void setPrice(int index, int price) {
+        checkIndex(index);
+        prices[index] = price;
+    }
+
+    public void setTextLength(int index, int length) {
+        checkIndex(index);
+        textLengths[index] = length;
+    }
+
+    // Moves the text of every row from index on, after an earlier row's text changed length
+    public void shiftText(int fromIndex, int shift) {
+        for (int i = fromIndex; i < size; i++) {
+            textStarts[i] += shift;
+        }
+    }
+}
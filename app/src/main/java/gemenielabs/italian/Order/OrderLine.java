@@ -0,0 +1,195 @@
+package gemenielabs.italian.Order;
+
+import java.util.Arrays;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Data.NutritionTable;
+
+/**
+ * One item being customized on the order screen: its option rows, the summary text and the
+ * running total. Changing a row only re-prices and re-renders that row; the total is adjusted
+ * by the difference instead of being summed again.
+ */
+public final class OrderLine {
+
+    // Row kinds, also the index into the directions passed to the constructor
+    public static final int SIZE = 0;
+    public static final int CRUST = 1;
+    public static final int ADD = 2;
+    public static final int NO = 3;
+    public static final int LEFT = 4;
+    public static final int RIGHT = 5;
+    public static final int STUFFING = 6;
+    public static final int KIND_COUNT = 7;
+
+    public static final String SUMMARY_HEADER = "ORDER SUMMARY:\n";
+    // Selection of a row whose spinner hasn't reported a choice yet
+    public static final int NO_SELECTION = -1;
+
+    public final MenuItem item;
+    private final PricingEngine pricing;
+    private final OrderNutrition nutrition;
+    private final String[] directions;
+    private final ModifierList rows = new ModifierList();
+    private final StringBuilder summary = new StringBuilder(SUMMARY_HEADER);
+    private long total;
+    private int size;
+    private int chargedToppings;
+
+    public OrderLine(MenuItem item, PricingEngine pricing, String[] directions) {
+        this(item, pricing, null, directions);
+    }
+
+    // nutrition may be null when the screen does not show nutrition totals
+    public OrderLine(MenuItem item, PricingEngine pricing, OrderNutrition nutrition, String[] directions) {
+        this.item = item;
+        this.pricing = pricing;
+        this.nutrition = nutrition;
+        this.directions = directions;
+    }
+
+    public static boolean isCharged(int kind) {
+        return kind == ADD || kind == LEFT || kind == RIGHT;
+    }
+
+    // Returns the new row's index, its text is empty until the first selection
+    public int addRow(int kind) {
+        int price = 0;
+        if (isCharged(kind)) {
+            price = pricing.toppingPrice(item, size);
+            chargedToppings++;
+            total += price;
+        }
+        return rows.add(kind, price, summary.length());
+    }
+
+    public void select(int index, int selection, String label) {
+        int oldSelection = getSelection(index);
+        rows.select(index, selection, label);
+        int kind = rows.getKind(index);
+        if (nutrition != null) {
+            if (kind == SIZE) {
+                nutrition.setSize(selection);
+            } else {
+                nutrition.changeTopping(kind, oldSelection, selection);
+            }
+        }
+        if (kind == SIZE) {
+            int oldTopping = pricing.toppingPrice(item, size);
+            size = selection;
+            setPrice(index, pricing.basePrice(item, size));
+            int newTopping = pricing.toppingPrice(item, size);
+            if (newTopping != oldTopping) {
+                repriceToppings(oldTopping, newTopping);
+            }
+        } else if (kind == CRUST) {
+            setPrice(index, pricing.crustPrice(selection));
+        }
+        render(index);
+    }
+
+    private void setPrice(int index, int price) {
+        total += price - rows.getPrice(index);
+        rows.setPrice(index, price);
+    }
+
+    // Topping prices follow the size, so a size change re-renders the charged rows only
+    private void repriceToppings(int oldPrice, int newPrice) {
+        total += (long) chargedToppings * (newPrice - oldPrice);
+        for (int i = 0; i < rows.size(); i++) {
+            if (isCharged(rows.getKind(i))) {
+                rows.setPrice(i, newPrice);
+                if (rows.getLabel(i) != null) {
+                    render(i);
+                }
+            }
+        }
+    }
+
+    private void render(int index) {
+        int price = rows.getPrice(index);
+        String text = "\n" + directions[rows.getKind(index)] + rows.getLabel(index)
+                + (price != 0 ? "     " + formatPrice(price) : "");
+        int start = rows.getTextStart(index);
+        int oldLength = rows.getTextLength(index);
+        summary.replace(start, start + oldLength, text);
+        rows.setTextLength(index, text.length());
+        if (text.length() != oldLength) {
+            rows.shiftText(index + 1, text.length() - oldLength);
+        }
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    public int getKind(int index) {
+        return rows.getKind(index);
+    }
+
+    // Rows have no selection until their spinner reports one
+    public int getSelection(int index) {
+        return rows.getLabel(index) != null ? rows.getSelection(index) : NO_SELECTION;
+    }
+
+    /**
+     * Whether choosing {@code selection} on the row newly picks an add-on with an avoided
+     * allergen. Removing a topping never conflicts, and a row rebinding to its choice isn't news,
+     * but a new row's first choice is.
+     */
+    public boolean conflicts(int index, int selection, MenuCatalog catalog, int avoided) {
+        int kind = rows.getKind(index);
+        return kind != NO && kind != SIZE && kind != CRUST && selection != getSelection(index)
+                && selection < catalog.getAddOns().size()
+                && (catalog.getAddOnAllergens(selection) & avoided) != 0;
+    }
+
+    public int getPrice(int index) {
+        return rows.getPrice(index);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public CharSequence getSummary() {
+        return summary;
+    }
+
+    public OrderNutrition getNutrition() {
+        return nutrition;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    // The line as it goes into the cart, rows still without a selection are left out
+    public CartLine toCartLine(String comments) {
+        int crust = CartLine.NO_CRUST;
+        int[] modifiers = new int[rows.size()];
+        int count = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            int kind = rows.getKind(i);
+            if (kind == CRUST) {
+                crust = rows.getSelection(i);
+            } else if (kind != SIZE && rows.getLabel(i) != null) {
+                modifiers[count++] = CartLine.modifier(kind, rows.getSelection(i));
+            }
+        }
+        float[] values = null;
+        if (nutrition != null && nutrition.isAvailable()) {
+            values = new float[NutritionTable.COLUMN_COUNT];
+            for (int column = 0; column < values.length; column++) {
+                values[column] = nutrition.get(column);
+            }
+        }
+        return new CartLine(item.id, size, crust, Arrays.copyOf(modifiers, count), 1, total, comments, values);
+    }
+
+    public static String formatPrice(long cents) {
+        long remainder = cents % 100;
+        return "$" + cents / 100 + (remainder < 10 ? ".0" : ".") + remainder;
+    }
+}
@@ -0,0 +1,84 @@
+package gemenielabs.italian.Order;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Data.NutritionTable;
+
+/**
+ * Estimated nutrition of an order line: the item's record plus a portion of each added topping,
+ * less one for each removed topping, scaled by the chosen size. Totals are kept unscaled, so a
+ * topping change adjusts them by that topping's values and a size change only swaps the scale.
+ */
+public final class OrderNutrition {
+
+    private final MenuItem item;
+    private final NutritionTable addOns;
+    private final boolean available;
+    private final float[] unscaled = new float[NutritionTable.COLUMN_COUNT];
+    private float scale;
+
+    public OrderNutrition(MenuCatalog catalog, MenuItem item) {
+        this.item = item;
+        this.addOns = catalog.getAddOnNutrition();
+        NutritionTable table = catalog.getNutritionTable();
+        int row = item.nutritionRow;
+        // Records without calories are placeholders, there is nothing to add toppings to
+        available = row != NutritionTable.NOT_FOUND && table.get(row, NutritionTable.CALORIES) > 0;
+        if (available) {
+            for (int column = 0; column < unscaled.length; column++) {
+                unscaled[column] = table.get(row, column);
+            }
+        }
+        scale = item.getSizeScale(0);
+    }
+
+    // Portions of a topping each row kind stands for
+    static float portions(int kind) {
+        switch (kind) {
+            case OrderLine.ADD:
+            case OrderLine.STUFFING:
+                return 1f;
+            case OrderLine.NO:
+                return -1f;
+            case OrderLine.LEFT:
+            case OrderLine.RIGHT:
+                return 0.5f;
+            default:
+                return 0f;
+        }
+    }
+
+    /**
+     * A row of {@code kind} changed its topping from {@code oldSelection} to {@code newSelection},
+     * either may be -1 for no topping.
+     */
+    public void changeTopping(int kind, int oldSelection, int newSelection) {
+        float portions = portions(kind);
+        if (portions == 0f || oldSelection == newSelection) {
+            return;
+        }
+        for (int column = 0; column < unscaled.length; column++) {
+            float delta = 0f;
+            if (oldSelection >= 0 && oldSelection < addOns.size()) {
+                delta -= addOns.get(oldSelection, column);
+            }
+            if (newSelection >= 0 && newSelection < addOns.size()) {
+                delta += addOns.get(newSelection, column);
+            }
+            unscaled[column] += portions * delta;
+        }
+    }
+
+    public void setSize(int size) {
+        scale = item.getSizeScale(size);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    // Removing toppings the item never had can't take a value below zero
+    public float get(int column) {
+        return Math.max(0f, unscaled[column] * scale);
+    }
+}
@@ -0,0 +1,101 @@
+package gemenielabs.italian.Order;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
+
+/**
+ * Prices order lines from the catalog's price tables. Every table is copied into primitive
+ * arrays once, when the engine is built, so pricing a line never touches resources and runs in
+ * constant time however many toppings it has. All prices are in cents.
+ */
+public final class PricingEngine {
+
+    public static final String TOPPING_PRICES = "topping_price_ADD";
+    public static final String CRUST_PRICES = "crust_price";
+
+    private static final Object LOCK = new Object();
+    private static volatile PricingEngine instance;
+
+    // Base price of every catalog item by size, indexed by MenuItem.index
+    private final int[][] basePrices;
+    private final int[] toppingPrices;
+    private final int[] crustPrices;
+
+    public PricingEngine(MenuCatalog catalog) {
+        toppingPrices = requireTable(catalog, TOPPING_PRICES);
+        crustPrices = requireTable(catalog, CRUST_PRICES);
+        basePrices = new int[catalog.size()][];
+        for (int index = 0; index < basePrices.length; index++) {
+            basePrices[index] = basePricesOf(catalog, catalog.getItem(index));
+        }
+    }
+
+    public static PricingEngine get(MenuCatalog catalog) {
+        PricingEngine result = instance;
+        if (result == null) {
+            synchronized (LOCK) {
+                result = instance;
+                if (result == null) {
+                    result = new PricingEngine(catalog);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Items with a price column keep one table per size, the others index a single table by size
+    private static int[] basePricesOf(MenuCatalog catalog, MenuItem item) {
+        int tableCount = item.priceTables.size();
+        if (tableCount == 0) {
+            return new int[0];
+        }
+        if (item.priceColumn < 0) {
+            return requireTable(catalog, item.priceTables.get(0));
+        }
+        int[] prices = new int[tableCount];
+        for (int size = 0; size < tableCount; size++) {
+            prices[size] = requireTable(catalog, item.priceTables.get(size))[item.priceColumn];
+        }
+        return prices;
+    }
+
+    private static int[] requireTable(MenuCatalog catalog, String name) {
+        int[] prices = catalog.getPriceTable(name);
+        if (prices == null) {
+            throw new IllegalStateException("Menu catalog has no price table " + name);
+        }
+        return prices;
+    }
+
+    public int getSizeCount(MenuItem item) {
+        return basePrices[item.index].length;
+    }
+
+    // Items without a price, like the ones that can't be ordered, cost nothing at any size
+    public int basePrice(MenuItem item, int size) {
+        int[] prices = basePrices[item.index];
+        return prices.length == 0 ? 0 : prices[Math.min(size, prices.length - 1)];
+    }
+
+    public int crustPrice(int crust) {
+        return crustPrices[crust];
+    }
+
+    // Pizza toppings follow the pizza size, everything else is charged the smallest topping price
+    public int toppingPrice(MenuItem item, int size) {
+        return toppingPrices[item.has(MenuItem.SIZED_TOPPINGS) ? size : 0];
+    }
+
+    /**
+     * Price of one line: the item at a size with a crust and {@code addedToppings} charged
+     * toppings. Removed toppings and stuffing choices are free.
+     */
+    public long linePrice(MenuItem item, int size, int crust, int addedToppings) {
+        long price = basePrice(item, size);
+        if (item.has(MenuItem.CRUST)) {
+            price += crustPrice(crust);
+        }
+        return price + (long) addedToppings * toppingPrice(item, size);
+    }
+}
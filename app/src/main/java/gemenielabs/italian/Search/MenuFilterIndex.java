@@ -0,0 +1,201 @@
+package gemenielabs.italian.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Data.NutritionTable;
+import gemenielabs.italian.Order.PricingEngine;
+
+/**
+ * Filters and sorts the menu by nutrition and price. Each nutrition column and the base price
+ * keeps the catalog indexes ordered by value, built once from the catalog, so a range is two
+ * binary searches and a sort is a walk of one array. Categories and ranges fill bit sets of
+ * catalog indexes owned by the caller and combine with {@link BitSet#and}, so filtering again
+ * allocates nothing. Allergens are one int mask per item, so avoiding some is an AND per item
+ * in the set.
+ */
+public final class MenuFilterIndex {
+
+    // Keys are the NutritionTable columns, plus the base price in cents
+    public static final int PRICE = NutritionTable.COLUMN_COUNT;
+    public static final int KEY_COUNT = PRICE + 1;
+    public static final int MENU_ORDER = -1;
+
+    private static final Object LOCK = new Object();
+    private static volatile MenuFilterIndex instance;
+
+    private final MenuCatalog catalog;
+    // Per key, catalog indexes of the items that have a value, ascending by value then menu order
+    private final int[][] order;
+    private final float[][] values;
+    // Per key, the value by catalog index, NaN for items without one, for sorting the rest last
+    private final float[][] valueByIndex;
+    // MenuItem allergen bits by catalog index
+    private final int[] allergens;
+
+    public MenuFilterIndex(MenuCatalog catalog) {
+        this.catalog = catalog;
+        allergens = new int[catalog.size()];
+        for (int index = 0; index < allergens.length; index++) {
+            allergens[index] = catalog.getItem(index).allergens;
+        }
+        NutritionTable table = catalog.getNutritionTable();
+        PricingEngine pricing = PricingEngine.get(catalog);
+        order = new int[KEY_COUNT][];
+        values = new float[KEY_COUNT][];
+        valueByIndex = new float[KEY_COUNT][catalog.size()];
+        long[] sorted = new long[catalog.size()];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            int count = 0;
+            for (int index = 0; index < catalog.size(); index++) {
+                MenuItem item = catalog.getItem(index);
+                float value;
+                if (key == PRICE) {
+                    if (item.priceTables.isEmpty()) {
+                        continue;
+                    }
+                    // The smallest size is the price a customer starts from
+                    value = pricing.basePrice(item, 0);
+                } else {
+                    // Records without calories are placeholders with every value zero
+                    int row = item.nutritionRow;
+                    if (row == NutritionTable.NOT_FOUND || table.get(row, NutritionTable.CALORIES) <= 0) {
+                        continue;
+                    }
+                    value = table.get(row, key);
+                }
+                // Bits of a non-negative float sort like the float, the index breaks ties
+                sorted[count++] = ((long) Float.floatToIntBits(value) << 32) | index;
+            }
+            Arrays.sort(sorted, 0, count);
+            order[key] = new int[count];
+            values[key] = new float[count];
+            Arrays.fill(valueByIndex[key], Float.NaN);
+            for (int i = 0; i < count; i++) {
+                order[key][i] = (int) sorted[i];
+                values[key][i] = Float.intBitsToFloat((int) (sorted[i] >>> 32));
+                valueByIndex[key][order[key][i]] = values[key][i];
+            }
+        }
+    }
+
+    public static MenuFilterIndex get(MenuCatalog catalog) {
+        MenuFilterIndex result = instance;
+        if (result == null) {
+            synchronized (LOCK) {
+                result = instance;
+                if (result == null) {
+                    result = new MenuFilterIndex(catalog);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Sets matches to the items of one category
+    public void category(String key, BitSet matches) {
+        MenuCatalog.Category category = catalog.getCategory(key);
+        matches.clear();
+        matches.set(category.start, category.end);
+    }
+
+    // Sets matches to the items whose value for key is within [min, max], items without a value never match
+    public void range(int key, float min, float max, BitSet matches) {
+        matches.clear();
+        int end = firstAbove(values[key], max);
+        for (int i = firstAtLeast(values[key], min); i < end; i++) {
+            matches.set(order[key][i]);
+        }
+    }
+
+    // Clears the items containing any avoided allergen, in place and without allocating
+    public void exclude(BitSet matches, int avoided) {
+        if (avoided == 0) {
+            return;
+        }
+        for (int index = matches.nextSetBit(0); index >= 0; index = matches.nextSetBit(index + 1)) {
+            if ((allergens[index] & avoided) != 0) {
+                matches.clear(index);
+            }
+        }
+    }
+
+    /**
+     * The items in {@code matches} ordered by {@code sortKey}, or in menu order for
+     * {@link #MENU_ORDER}. Equal values keep menu order either way, items without a value for
+     * the key come last.
+     */
+    public List<MenuItem> select(BitSet matches, int sortKey, boolean descending) {
+        List<MenuItem> result = new ArrayList<>(matches.cardinality());
+        if (sortKey == MENU_ORDER) {
+            for (int index = matches.nextSetBit(0); index >= 0; index = matches.nextSetBit(index + 1)) {
+                result.add(catalog.getItem(index));
+            }
+            return result;
+        }
+        int[] keyOrder = order[sortKey];
+        float[] keyValues = values[sortKey];
+        if (descending) {
+            // Walk runs of equal values from the top, each run forwards
+            int runEnd = keyOrder.length;
+            while (runEnd > 0) {
+                int runStart = firstAtLeast(keyValues, keyValues[runEnd - 1]);
+                for (int i = runStart; i < runEnd; i++) {
+                    take(keyOrder[i], matches, result);
+                }
+                runEnd = runStart;
+            }
+        } else {
+            for (int index : keyOrder) {
+                take(index, matches, result);
+            }
+        }
+        // The items without a value, which the walk above never reached
+        float[] byIndex = valueByIndex[sortKey];
+        for (int index = matches.nextSetBit(0); index >= 0; index = matches.nextSetBit(index + 1)) {
+            if (Float.isNaN(byIndex[index])) {
+                result.add(catalog.getItem(index));
+            }
+        }
+        return result;
+    }
+
+    private void take(int index, BitSet matches, List<MenuItem> result) {
+        if (matches.get(index)) {
+            result.add(catalog.getItem(index));
+        }
+    }
+
+    private static int firstAtLeast(float[] sorted, float value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int firstAbove(float[] sorted, float value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
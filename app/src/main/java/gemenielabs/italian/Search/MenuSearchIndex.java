@@ -0,0 +1,299 @@
+package gemenielabs.italian.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Data.TextNormalizer;
+
+/**
+ * Search over every menu item's title, description and topping names, built once from the
+ * catalog. Words are kept in a prefix trie whose nodes carry the items under that prefix, so the
+ * word being typed is a walk of its length; trigram postings catch typos and words typed from
+ * the middle. Every word of a query has to match, results are ranked by field weight.
+ */
+public final class MenuSearchIndex {
+
+    // Field weights, a title hit outranks a topping hit outranks a description hit
+    public static final int TITLE = 8;
+    public static final int TOPPING = 3;
+    public static final int DESCRIPTION = 2;
+    // Items that take toppings match every topping name, below the items that already have it
+    public static final int CUSTOMIZABLE = 1;
+
+    // A prefix hit counts double a fuzzy hit of the same field
+    private static final int PREFIX_FACTOR = 2;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MIN_SHARED_TRIGRAMS = 2;
+
+    private static final Object LOCK = new Object();
+    private static volatile MenuSearchIndex instance;
+
+    private final MenuItem[] items;
+    private final Node root;
+    // Words with their items and best field weight per item
+    private final int[][] wordItems;
+    private final int[][] wordWeights;
+    // Sorted trigram keys and the words containing each
+    private final long[] trigrams;
+    private final int[][] trigramWords;
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        int[] items;
+        int[] weights;
+    }
+
+    public MenuSearchIndex(MenuCatalog catalog) {
+        items = new MenuItem[catalog.size()];
+        TreeMap<String, int[]> weightsByWord = new TreeMap<>();
+        List<String> toppings = new ArrayList<>();
+        for (String addOn : catalog.getAddOns()) {
+            toppings.add(TextNormalizer.normalize(addOn));
+        }
+        for (int index = 0; index < items.length; index++) {
+            MenuItem item = catalog.getItem(index);
+            items[index] = item;
+            String description = TextNormalizer.normalize(item.description);
+            addWords(weightsByWord, TextNormalizer.normalize(item.title), index, TITLE);
+            addWords(weightsByWord, description, index, DESCRIPTION);
+            String padded = " " + description + " ";
+            for (String topping : toppings) {
+                if (padded.contains(" " + topping + " ")) {
+                    addWords(weightsByWord, topping, index, TOPPING);
+                } else if (item.has(MenuItem.TOPPINGS)) {
+                    addWords(weightsByWord, topping, index, CUSTOMIZABLE);
+                }
+            }
+        }
+
+        String[] words = weightsByWord.keySet().toArray(new String[0]);
+        wordItems = new int[words.length][];
+        wordWeights = new int[words.length][];
+        TreeMap<Long, List<Integer>> wordsByTrigram = new TreeMap<>();
+        for (int word = 0; word < words.length; word++) {
+            int[] weights = weightsByWord.get(words[word]);
+            int count = 0;
+            for (int weight : weights) {
+                if (weight > 0) {
+                    count++;
+                }
+            }
+            wordItems[word] = new int[count];
+            wordWeights[word] = new int[count];
+            for (int index = 0, k = 0; index < weights.length; index++) {
+                if (weights[index] > 0) {
+                    wordItems[word][k] = index;
+                    wordWeights[word][k++] = weights[index];
+                }
+            }
+            for (long trigram : trigramsOf(words[word], true)) {
+                List<Integer> posting = wordsByTrigram.get(trigram);
+                if (posting == null) {
+                    posting = new ArrayList<>();
+                    wordsByTrigram.put(trigram, posting);
+                }
+                if (posting.isEmpty() || posting.get(posting.size() - 1) != word) {
+                    posting.add(word);
+                }
+            }
+        }
+
+        trigrams = new long[wordsByTrigram.size()];
+        trigramWords = new int[trigrams.length][];
+        int t = 0;
+        for (Map.Entry<Long, List<Integer>> entry : wordsByTrigram.entrySet()) {
+            trigrams[t] = entry.getKey();
+            List<Integer> posting = entry.getValue();
+            trigramWords[t] = new int[posting.size()];
+            for (int i = 0; i < posting.size(); i++) {
+                trigramWords[t][i] = posting.get(i);
+            }
+            t++;
+        }
+
+        root = new Node();
+        build(root, words, 0, words.length, 0);
+    }
+
+    public static MenuSearchIndex get(MenuCatalog catalog) {
+        MenuSearchIndex result = instance;
+        if (result == null) {
+            synchronized (LOCK) {
+                result = instance;
+                if (result == null) {
+                    result = new MenuSearchIndex(catalog);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void addWords(TreeMap<String, int[]> weightsByWord, String text, int index, int weight) {
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            int[] weights = weightsByWord.get(word);
+            if (weights == null) {
+                weights = new int[0];
+            }
+            if (weights.length <= index) {
+                weights = Arrays.copyOf(weights, index + 1);
+                weightsByWord.put(word, weights);
+            }
+            weights[index] = Math.max(weights[index], weight);
+        }
+    }
+
+    // Words are sorted, so the words under a node are the range [start, end) sharing its prefix
+    private void build(Node node, String[] words, int start, int end, int depth) {
+        int[] weights = new int[items.length];
+        int count = 0;
+        for (int word = start; word < end; word++) {
+            for (int k = 0; k < wordItems[word].length; k++) {
+                int index = wordItems[word][k];
+                if (weights[index] == 0) {
+                    count++;
+                }
+                weights[index] = Math.max(weights[index], wordWeights[word][k]);
+            }
+        }
+        node.items = new int[count];
+        node.weights = new int[count];
+        for (int index = 0, k = 0; index < weights.length; index++) {
+            if (weights[index] > 0) {
+                node.items[k] = index;
+                node.weights[k++] = weights[index];
+            }
+        }
+
+        int childStart = start;
+        while (childStart < end && words[childStart].length() == depth) {
+            childStart++;
+        }
+        List<Character> keys = new ArrayList<>();
+        List<Node> children = new ArrayList<>();
+        while (childStart < end) {
+            char key = words[childStart].charAt(depth);
+            int childEnd = childStart;
+            while (childEnd < end && words[childEnd].charAt(depth) == key) {
+                childEnd++;
+            }
+            Node child = new Node();
+            build(child, words, childStart, childEnd, depth + 1);
+            keys.add(key);
+            children.add(child);
+            childStart = childEnd;
+        }
+        node.keys = new char[keys.size()];
+        for (int i = 0; i < node.keys.length; i++) {
+            node.keys[i] = keys.get(i);
+        }
+        node.children = children.toArray(new Node[0]);
+    }
+
+    // Words are padded with '$' on both ends, the word being typed only at the start
+    private static long[] trigramsOf(String word, boolean complete) {
+        String padded = "$" + word + (complete ? "$" : "");
+        if (padded.length() < 3) {
+            return new long[0];
+        }
+        long[] result = new long[padded.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return result;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            int child = Arrays.binarySearch(node.keys, prefix.charAt(i));
+            node = child >= 0 ? node.children[child] : null;
+        }
+        return node;
+    }
+
+    /**
+     * Items matching every word of {@code query}, best first. The last word is matched as a
+     * prefix, so results can be shown as the user types.
+     */
+    public List<MenuItem> search(CharSequence query) {
+        String normalized = TextNormalizer.normalize(query);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int[] total = new int[items.length];
+        int[] scores = new int[items.length];
+        int[] shared = new int[wordItems.length];
+        boolean first = true;
+        for (String word : normalized.split(" ")) {
+            Arrays.fill(scores, 0);
+            Node node = find(word);
+            if (node != null) {
+                for (int k = 0; k < node.items.length; k++) {
+                    scores[node.items[k]] = node.weights[k] * PREFIX_FACTOR;
+                }
+            }
+            if (word.length() >= MIN_FUZZY_LENGTH) {
+                scoreFuzzy(word, scores, shared);
+            }
+            for (int index = 0; index < total.length; index++) {
+                if (first) {
+                    total[index] = scores[index];
+                } else if (total[index] > 0) {
+                    total[index] = scores[index] > 0 ? total[index] + scores[index] : 0;
+                }
+            }
+            first = false;
+        }
+
+        // Best score first, menu order between equal scores
+        int count = 0;
+        long[] ranked = new long[items.length];
+        for (int index = 0; index < total.length; index++) {
+            if (total[index] > 0) {
+                ranked[count++] = ((long) (Integer.MAX_VALUE - total[index]) << 32) | index;
+            }
+        }
+        Arrays.sort(ranked, 0, count);
+        List<MenuItem> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(items[(int) ranked[i]]);
+        }
+        return results;
+    }
+
+    // Words sharing at least a third of the typed word's trigrams match at that share of their weight
+    private void scoreFuzzy(String word, int[] scores, int[] shared) {
+        long[] queryTrigrams = trigramsOf(word, false);
+        Arrays.fill(shared, 0);
+        for (long trigram : queryTrigrams) {
+            int t = Arrays.binarySearch(trigrams, trigram);
+            if (t >= 0) {
+                for (int match : trigramWords[t]) {
+                    shared[match]++;
+                }
+            }
+        }
+        for (int match = 0; match < shared.length; match++) {
+            int count = shared[match];
+            if (count < MIN_SHARED_TRIGRAMS || count * 3 < queryTrigrams.length) {
+                continue;
+            }
+            for (int k = 0; k < wordItems[match].length; k++) {
+                int index = wordItems[match][k];
+                int score = wordWeights[match][k] * count / queryTrigrams.length;
+                scores[index] = Math.max(scores[index], Math.max(score, 1));
+            }
+        }
+    }
+}
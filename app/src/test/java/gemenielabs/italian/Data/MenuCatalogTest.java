@@ -0,0 +1,186 @@
+package gemenielabs.italian.Data;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class MenuCatalogTest {
+
+    // Written by the compileMenuCatalog task, which runs before the unit tests compile
+    private static final File COMPILED_CATALOG = new File("build/generated/catalog/assets/" + MenuCatalog.ASSET);
+    private static final MenuCatalogReader.ResourceResolver NO_RESOURCES = (name, type) -> 0;
+
+    private static MenuCatalog getCatalog() {
+        return MenuCatalog.get(() -> new FileInputStream(COMPILED_CATALOG), NO_RESOURCES);
+    }
+
+    @Test
+    public void compiledCatalog_containsMenuAndNutrition() throws IOException {
+        MenuCatalog catalog;
+        try (InputStream in = new FileInputStream(COMPILED_CATALOG)) {
+            catalog = MenuCatalogReader.read(in, NO_RESOURCES);
+        }
+        assertEquals(23, catalog.getItems("pizza").size());
+        assertEquals("Mobster", catalog.getItems("pizza").get(0).title);
+        assertEquals(5, catalog.getItems("deserts").size());
+        assertEquals(26, catalog.getAddOns().size());
+        assertEquals(Arrays.asList("pizza", "sandwiches", "appetizers", "pastas", "salads", "deserts"),
+                catalog.getCategoryKeys());
+
+        NutritionHelper helper = new NutritionHelper(catalog.getNutritionTable(), "Cheese Stick Pizza");
+        helper.searchForNutritionInfo();
+        assertEquals("100", helper.getCalories());
+        assertEquals("<1", helper.getSugars());
+    }
+
+    @Test
+    public void nutritionReport_namesTheItemsWithoutRecords() {
+        List<String> missing = new ArrayList<>();
+        for (String line : getCatalog().getNutritionReport()) {
+            if (line.endsWith(": no nutrition record")) {
+                missing.add(line);
+            } else {
+                // Every other line is a near miss that still found its record
+                assertTrue(line, line.contains(": matched "));
+            }
+        }
+        assertEquals(Arrays.asList("pizza/Southwest Chicken Alfredo: no nutrition record",
+                "pizza/Create Your Own: no nutrition record",
+                "deserts/Heart Shaped: no nutrition record"), missing);
+    }
+
+    @Test
+    public void itemsResolveByIdAndCategory() {
+        MenuCatalog catalog = getCatalog();
+        for (int i = 0; i < catalog.size(); i++) {
+            MenuItem item = catalog.getItem(i);
+            assertSame(item, catalog.getItemById(item.id));
+            assertSame(item, catalog.getItems(item.category).get(item.position));
+        }
+        MenuItem calzone = catalog.getItemById(123);
+        assertEquals("Calzone", calzone.title);
+        assertEquals("calzone_price", calzone.priceTables.get(0));
+        assertEquals("Calzone", catalog.getNutritionTable().getTitle(calzone.nutritionRow));
+        assertNull(catalog.getItemById(99999));
+    }
+
+    @Test
+    public void capabilities_followCategoryDefaultsAndOverrides() {
+        MenuCatalog catalog = getCatalog();
+        MenuItem mobster = catalog.getItemById(101);
+        assertTrue(mobster.has(MenuItem.TOPPINGS | MenuItem.HALF_TOPPINGS));
+        assertTrue(mobster.has(MenuItem.CRUST));
+        assertEquals(0, mobster.stuffingCount);
+
+        MenuItem calzone = catalog.getItemById(123);
+        assertTrue(calzone.isOrderable());
+        assertFalse(calzone.has(MenuItem.TOPPINGS));
+        assertFalse(calzone.has(MenuItem.CRUST));
+        assertEquals(3, calzone.stuffingCount);
+
+        MenuItem salad = catalog.getItems("salads").get(0);
+        assertTrue(salad.has(MenuItem.TOPPINGS));
+        assertFalse(salad.has(MenuItem.HALF_TOPPINGS));
+        assertFalse(salad.has(MenuItem.SIZED_TOPPINGS));
+
+        assertFalse(catalog.getItemById(605).isOrderable());
+        assertTrue(catalog.getItemById(604).isOrderable());
+    }
+
+    @Test
+    public void allergens_combineCategoryAndItemLists() {
+        MenuCatalog catalog = getCatalog();
+        MenuItem mobster = catalog.getItemById(101);
+        assertTrue(mobster.contains(MenuItem.PORK));
+        assertTrue(mobster.contains(MenuItem.DAIRY | MenuItem.SHELLFISH));
+        assertFalse(mobster.contains(MenuItem.SHELLFISH));
+
+        // Pizza is dairy and gluten without listing them on the item
+        MenuItem veggie = catalog.getItemById(111);
+        assertEquals(MenuItem.DAIRY | MenuItem.GLUTEN, veggie.allergens);
+
+        MenuItem salad = catalog.getItemById(501);
+        assertEquals(MenuItem.DAIRY, salad.allergens);
+        assertFalse(catalog.getItemById(413).contains(MenuItem.PORK));
+        assertTrue(catalog.getItemById(413).contains(MenuItem.SHELLFISH));
+
+        int pepperoni = catalog.getAddOns().indexOf("Pepperoni");
+        assertEquals(MenuItem.PORK | MenuItem.MEAT, catalog.getAddOnAllergens(pepperoni));
+        assertEquals(0, catalog.getAddOnAllergens(catalog.getAddOns().indexOf("Mushroom")));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void categoryViews_areImmutable() {
+        getCatalog().getItems("pizza").remove(0);
+    }
+
+    @Test(expected = IOException.class)
+    public void read_rejectsNewerFormat() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MenuCatalogReader.MAGIC);
+        out.writeShort(MenuCatalogReader.FORMAT_VERSION + 1);
+        out.writeInt(1);
+        MenuCatalogReader.read(new ByteArrayInputStream(bytes.toByteArray()), NO_RESOURCES);
+    }
+
+    @Test
+    public void repeatedActivityCreation_readsOnce() {
+        MenuCatalog first = getCatalog();
+        for (int i = 0; i < 1000; i++) {
+            // What MainActivity.onCreate and NutritionInfoActivity do on every rotation
+            MenuCatalog catalog = getCatalog();
+            NutritionHelper helper = new NutritionHelper(catalog.getNutritionTable(), "Mobster");
+            helper.searchForNutritionInfo();
+            assertEquals("370", helper.getCalories());
+        }
+        assertSame(first, getCatalog());
+        assertSame(first.getNutritionTable(), getCatalog().getNutritionTable());
+        assertEquals(1, MenuCatalog.loadCount);
+    }
+
+    @Test
+    public void concurrentReaders_seeSameInstance() throws InterruptedException {
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicReference<MenuCatalog> seen = new AtomicReference<>();
+        final AtomicReference<MenuCatalog> mismatch = new AtomicReference<>();
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    MenuCatalog catalog = getCatalog();
+                    if (!seen.compareAndSet(null, catalog) && seen.get() != catalog) {
+                        mismatch.set(catalog);
+                    }
+                } catch (InterruptedException ignored) {
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        assertNull(mismatch.get());
+        assertEquals(1, MenuCatalog.loadCount);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addOns_areImmutable() {
+        getCatalog().getAddOns().add("Anchovies");
+    }
+}
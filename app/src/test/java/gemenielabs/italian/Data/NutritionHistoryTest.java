@@ -0,0 +1,88 @@
+package gemenielabs.italian.Data;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class NutritionHistoryTest {
+
+    private static float[] order(float calories) {
+        float[] values = new float[NutritionTable.COLUMN_COUNT];
+        values[NutritionTable.CALORIES] = calories;
+        values[NutritionTable.PROTEIN] = calories / 10;
+        return values;
+    }
+
+    private static NutritionHistory newHistory() throws IOException {
+        File file = File.createTempFile("history", ".bin");
+        file.deleteOnExit();
+        assertTrue(file.delete());
+        return new NutritionHistory(file);
+    }
+
+    @Test
+    public void windows_sumOnlyTheirDays() throws IOException {
+        NutritionHistory history = newHistory();
+        assertEquals(0, history.window(100, 7).orders);
+
+        history.record(60, order(1000));
+        history.record(93, order(800));
+        history.record(95, order(600));
+        history.record(100, order(500));
+        history.record(100, order(300));
+
+        NutritionHistory.Totals week = history.window(100, 7);
+        assertEquals(3, week.orders);
+        assertEquals(1400f, week.get(NutritionTable.CALORIES), 0.01f);
+        assertEquals(140f, week.get(NutritionTable.PROTEIN), 0.01f);
+
+        NutritionHistory.Totals month = history.window(100, 30);
+        assertEquals(4, month.orders);
+        assertEquals(2200f, month.get(NutritionTable.CALORIES), 0.01f);
+
+        // A window ending before the latest orders
+        assertEquals(800f, history.window(94, 7).get(NutritionTable.CALORIES), 0.01f);
+    }
+
+    @Test
+    public void truncatedRecord_isDroppedAndOverwritten() throws IOException {
+        File file = File.createTempFile("history", ".bin");
+        file.deleteOnExit();
+        NutritionHistory history = new NutritionHistory(file);
+        history.record(10, order(400));
+        history.record(11, order(500));
+        // A crash part way through the second record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+        assertEquals(1, history.window(11, 7).orders);
+        history.record(11, order(700));
+        NutritionHistory.Totals week = history.window(11, 7);
+        assertEquals(2, week.orders);
+        assertEquals(1100f, week.get(NutritionTable.CALORIES), 0.01f);
+    }
+
+    @Test
+    public void manyOrders_keepExactRunningSums() throws IOException {
+        NutritionHistory history = newHistory();
+        for (int day = 0; day < 1000; day++) {
+            history.record(day, order(333.3f));
+        }
+        NutritionHistory.Totals month = history.window(999, 30);
+        assertEquals(30, month.orders);
+        assertEquals(30 * 333.3f, month.get(NutritionTable.CALORIES), 0.1f);
+    }
+
+    @Test
+    public void dayOf_usesLocalMidnight() {
+        TimeZone zone = TimeZone.getTimeZone("GMT-05:00");
+        // 03:00 UTC on day 1 is still day 0 five hours west
+        assertEquals(0, NutritionHistory.dayOf(27L * 60 * 60 * 1000, zone));
+        assertEquals(1, NutritionHistory.dayOf(30L * 60 * 60 * 1000, zone));
+    }
+}
@@ -0,0 +1,109 @@
+package gemenielabs.italian.Data;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NutritionMatcherTest {
+
+    private static final File COMPILED_CATALOG = new File("build/generated/catalog/assets/" + MenuCatalog.ASSET);
+
+    private static MenuCatalog getCatalog() {
+        return MenuCatalog.get(() -> new FileInputStream(COMPILED_CATALOG), (name, type) -> 0);
+    }
+
+    private static NutritionTable table(String... titles) {
+        float[][] columns = new float[NutritionTable.COLUMN_COUNT][titles.length];
+        for (int row = 0; row < titles.length; row++) {
+            columns[NutritionTable.CALORIES][row] = 100 + row;
+        }
+        return new NutritionTable(titles, columns, new int[titles.length]);
+    }
+
+    private static String[] categories(int count) {
+        String[] categories = new String[count];
+        Arrays.fill(categories, "pizza");
+        return categories;
+    }
+
+    @Test
+    public void variantTitles_matchTheirRecords() {
+        NutritionTable table = table("Taco", "Buffalo Wing Pizza", "Buffalo Wings", "Fettuccini Aflredo", "Hawaiian Pie");
+        String[] titles = {"TACO ", "Buffalo Wing", "Fettuccini Alfredo", "Hawaiian", "Buffalo Wings"};
+        NutritionMatcher matcher = NutritionMatcher.match(titles, categories(titles.length), table);
+        assertEquals(0, matcher.rowOf(0));
+        assertEquals(1, matcher.rowOf(1));
+        assertEquals(3, matcher.rowOf(2));
+        assertEquals(4, matcher.rowOf(3));
+        assertEquals(2, matcher.rowOf(4));
+        assertEquals(3, matcher.getReport().size());
+    }
+
+    @Test
+    public void duplicateRecords_areHandedOutInMenuOrder() {
+        NutritionTable table = table("Chicken Bacon Ranch", "Cheese", "Chicken Bacon Ranch");
+        String[] titles = {"Chicken Bacon Ranch", "Chicken Bacon Ranch", "Chicken Bacon Ranch"};
+        NutritionMatcher matcher = NutritionMatcher.match(titles, categories(titles.length), table);
+        assertEquals(0, matcher.rowOf(0));
+        assertEquals(2, matcher.rowOf(1));
+        // More items than records share the last one
+        assertEquals(2, matcher.rowOf(2));
+        assertTrue(matcher.getReport().isEmpty());
+    }
+
+    @Test
+    public void distantTitles_stayUnmatched() {
+        NutritionTable table = table("Southwest Fettuccini Alfredo", "Cheese");
+        String[] titles = {"Southwest Chicken Alfredo", "Heart Shaped"};
+        NutritionMatcher matcher = NutritionMatcher.match(titles, categories(titles.length), table);
+        assertEquals(NutritionTable.NOT_FOUND, matcher.rowOf(0));
+        assertEquals(NutritionTable.NOT_FOUND, matcher.rowOf(1));
+        assertEquals(Arrays.asList("pizza/Southwest Chicken Alfredo: no nutrition record",
+                "pizza/Heart Shaped: no nutrition record"), matcher.getReport());
+    }
+
+    @Test
+    public void distance_countsSwapsAsOneEdit() {
+        assertEquals(1, NutritionMatcher.distance("alfredo", "aflredo", 2));
+        assertEquals(1, NutritionMatcher.distance("wing", "wings", 2));
+        assertEquals(3, NutritionMatcher.distance("chicken", "fettuccini", 2));
+    }
+
+    @Test
+    public void compiledCatalog_reportsOnlyItemsWithoutRecords() {
+        MenuCatalog catalog = getCatalog();
+        NutritionTable table = catalog.getNutritionTable();
+        assertEquals("Taco", table.getTitle(catalog.getItemById(102).nutritionRow));
+        List<String> unmatched = new ArrayList<>();
+        for (MenuItem item : catalog.getItemsWithoutNutrition()) {
+            unmatched.add(item.title);
+        }
+        assertEquals(Arrays.asList("Southwest Chicken Alfredo", "Create Your Own", "Heart Shaped"), unmatched);
+        for (MenuItem item : catalog.getItems("pastas")) {
+            if (item.title.equals("Fettuccini Alfredo")) {
+                assertEquals("Fettuccini Aflredo", table.getTitle(item.nutritionRow));
+            }
+        }
+        // The pizza and the sandwich of the same name have their own records
+        MenuItem pizza = catalog.getItems("pizza").get(17);
+        MenuItem sandwich = catalog.getItems("sandwiches").get(0);
+        assertEquals(pizza.title, sandwich.title);
+        assertEquals(350f, table.get(pizza.nutritionRow, NutritionTable.CALORIES), 0f);
+        assertEquals(660f, table.get(sandwich.nutritionRow, NutritionTable.CALORIES), 0f);
+    }
+
+    @Test
+    public void helper_leavesUnmatchedItemsEmpty() {
+        MenuCatalog catalog = getCatalog();
+        NutritionHelper helper = new NutritionHelper(catalog.getNutritionTable(), catalog.getItems("deserts").get(4));
+        helper.searchForNutritionInfo();
+        assertFalse(helper.hasNutritionInfo());
+        assertNull(helper.getCalories());
+    }
+}
@@ -0,0 +1,86 @@
+package gemenielabs.italian.Data;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.*;
+
+public class NutritionTableTest {
+
+    private static final File COMPILED_CATALOG = new File("build/generated/catalog/assets/" + MenuCatalog.ASSET);
+
+    // The records as the build compiles them from menu.json
+    private static NutritionTable catalogTable;
+
+    @BeforeClass
+    public static void readCatalog() throws IOException {
+        try (InputStream in = new FileInputStream(COMPILED_CATALOG)) {
+            catalogTable = MenuCatalogReader.read(in, (name, type) -> 0).getNutritionTable();
+        }
+    }
+
+    // One record per title, each row's protein is its row number
+    private static NutritionTable table(String... titles) {
+        float[][] columns = new float[NutritionTable.COLUMN_COUNT][titles.length];
+        for (int row = 0; row < titles.length; row++) {
+            columns[NutritionTable.PROTEIN][row] = row;
+        }
+        return new NutritionTable(titles, columns, new int[titles.length]);
+    }
+
+    @Test
+    public void catalog_readsColumnsByTitle() {
+        NutritionTable table = catalogTable;
+        int row = table.rowOf("Cheese");
+        assertEquals(260f, table.get(row, NutritionTable.CALORIES), 0f);
+        assertEquals(7f, table.get(row, NutritionTable.FAT), 0f);
+        assertEquals(3.5f, table.get(row, NutritionTable.SATURATED_FAT), 0f);
+        assertEquals(420f, table.get(row, NutritionTable.SODIUM), 0f);
+        assertEquals(36f, table.get(row, NutritionTable.CARBOHYDRATES), 0f);
+        assertEquals(2f, table.get(row, NutritionTable.SUGARS), 0f);
+        assertEquals(12f, table.get(row, NutritionTable.PROTEIN), 0f);
+        assertEquals("3.5", table.format(row, NutritionTable.SATURATED_FAT));
+    }
+
+    @Test
+    public void catalog_keepsLessThanValuesAndPunctuatedTitles() {
+        NutritionTable table = catalogTable;
+        int row = table.rowOf("Cheese Stick Pizza");
+        assertTrue(table.isLessThan(row, NutritionTable.SUGARS));
+        assertEquals("<1", table.format(row, NutritionTable.SUGARS));
+        assertFalse(table.isLessThan(row, NutritionTable.PROTEIN));
+        assertNotEquals(NutritionTable.NOT_FOUND, table.rowOf("Toasted Ravioli WJal. & Cheese"));
+    }
+
+    @Test
+    public void rowOf_lastDuplicateWins() {
+        NutritionTable table = table("Polynesian", "Cheese", "Polynesian");
+        assertEquals(2f, table.get(table.rowOf("Polynesian"), NutritionTable.PROTEIN), 0f);
+        assertEquals(NutritionTable.NOT_FOUND, table.rowOf("Calzone"));
+    }
+
+    @Test
+    public void rowOf_probeCountStaysFlatAsMenuGrows() {
+        assertTrue(averageProbes(64) < 2f);
+        assertTrue(averageProbes(65536) < 2f);
+    }
+
+    private static float averageProbes(int rows) {
+        String[] titles = new String[rows];
+        float[][] columns = new float[NutritionTable.COLUMN_COUNT][rows];
+        for (int i = 0; i < rows; i++) {
+            titles[i] = "Menu Item " + i;
+        }
+        NutritionTable table = new NutritionTable(titles, columns, new int[rows]);
+        long probes = 0;
+        for (String title : titles) {
+            probes += table.probes(title);
+        }
+        return probes / (float) rows;
+    }
+}
@@ -0,0 +1,272 @@
+package gemenielabs.italian.Order;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CartAutosaveTest {
+
+    // Long enough that nothing is written by the timer while a test is still changing the cart
+    private static final long DEBOUNCE_MILLIS = 5000;
+    private static final long WAIT_MILLIS = 5000;
+
+    private File file;
+    private CountingExecutor executor;
+
+    // Counts the tasks that actually ran, cancelled timers are dropped unrun
+    private static final class CountingExecutor extends ScheduledThreadPoolExecutor {
+        final AtomicInteger runs = new AtomicInteger();
+        volatile Thread worker;
+
+        CountingExecutor() {
+            super(1);
+            setRemoveOnCancelPolicy(true);
+        }
+
+        // Counted before the task, a caller waiting on the task's future sees the count
+        @Override
+        protected void beforeExecute(Thread thread, Runnable task) {
+            super.beforeExecute(thread, task);
+            worker = thread;
+            runs.incrementAndGet();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("cart", ".bin");
+        file.deleteOnExit();
+        new File(file.getPath() + ".tmp").deleteOnExit();
+        assertTrue(file.delete());
+        executor = new CountingExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private CartAutosave newAutosave() {
+        return newAutosave(new CartStore(file));
+    }
+
+    private CartAutosave newAutosave(CartStore store) {
+        return new CartAutosave(store, executor, DEBOUNCE_MILLIS);
+    }
+
+    private static CartLine pizza(int crust) {
+        return new CartLine(112, 3, crust, new int[0], 1, 1299, "", null);
+    }
+
+    // One thread runs the tasks in order, so everything queued before this marker has finished
+    private void drain() throws Exception {
+        executor.submit(() -> { }).get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // What a fresh process finds on disk
+    private List<CartLine> loadFromDisk() throws IOException {
+        List<CartLine> lines = new ArrayList<>();
+        new CartStore(file).load(lines);
+        return lines;
+    }
+
+    @Test
+    public void burstOfChanges_isOneWrite() throws Exception {
+        CartAutosave autosave = newAutosave();
+        Cart cart = new Cart();
+        cart.add(pizza(0));
+        for (int i = 0; i < 20; i++) {
+            cart.step(0, 1);
+            autosave.changed(cart.lines());
+        }
+        assertFalse(file.exists());
+        autosave.flush();
+        drain();
+        // The write and the drain's own marker, the cancelled timers never ran
+        assertEquals(2, executor.runs.get());
+
+        List<CartLine> lines = loadFromDisk();
+        assertEquals(1, lines.size());
+        assertEquals(21, lines.get(0).getQuantity());
+    }
+
+    @Test
+    public void load_seesChangesNotYetWritten() throws Exception {
+        CartAutosave autosave = newAutosave();
+        Cart cart = new Cart();
+        cart.add(pizza(0));
+        cart.add(pizza(1));
+        autosave.changed(cart.lines());
+
+        List<CartLine> lines = new ArrayList<>();
+        autosave.load(lines);
+        assertEquals(2, lines.size());
+        assertTrue(loadFromDisk().isEmpty());
+    }
+
+    @Test
+    public void killBetweenChangeAndFlush_recoversLastWrittenCart() throws Exception {
+        CartAutosave autosave = newAutosave();
+        Cart cart = new Cart();
+        cart.add(pizza(0));
+        autosave.changed(cart.lines());
+        autosave.flush();
+        drain();
+
+        cart.add(pizza(1));
+        cart.step(0, 1);
+        autosave.changed(cart.lines());
+        // The process dies before the debounce or any lifecycle flush
+        executor.shutdownNow();
+
+        List<CartLine> lines = loadFromDisk();
+        assertEquals(1, lines.size());
+        assertEquals(0, lines.get(0).crust);
+        assertEquals(1, lines.get(0).getQuantity());
+    }
+
+    @Test
+    public void killDuringWrite_recoversLastWrittenCart() throws Exception {
+        CartAutosave autosave = newAutosave();
+        Cart cart = new Cart();
+        cart.add(pizza(0));
+        autosave.changed(cart.lines());
+        autosave.flush();
+        drain();
+
+        // A write cut off before its rename leaves part of the next snapshot in the temporary file
+        cart.add(pizza(1));
+        byte[] next = CartStore.encode(cart.lines());
+        try (FileOutputStream partial = new FileOutputStream(file.getPath() + ".tmp")) {
+            partial.write(next, 0, next.length / 2);
+        }
+        executor.shutdownNow();
+
+        List<CartLine> lines = loadFromDisk();
+        assertEquals(1, lines.size());
+
+        // The next process writes over the leftover without trouble
+        executor = new CountingExecutor();
+        CartAutosave restarted = newAutosave();
+        restarted.changed(cart.lines());
+        restarted.flush();
+        drain();
+        assertEquals(2, loadFromDisk().size());
+    }
+
+    @Test
+    public void flush_withNothingChangedWritesNothing() throws Exception {
+        CartAutosave autosave = newAutosave();
+        autosave.flush();
+        drain();
+        assertFalse(file.exists());
+        assertEquals(1, executor.runs.get());
+    }
+
+    @Test
+    public void clear_deletesStoredCartAndDropsWaitingChange() throws Exception {
+        CartAutosave autosave = newAutosave();
+        Cart cart = new Cart();
+        cart.add(pizza(0));
+        autosave.changed(cart.lines());
+        autosave.flush();
+        drain();
+        assertTrue(file.exists());
+
+        cart.add(pizza(1));
+        autosave.changed(cart.lines());
+        cart.clear();
+        autosave.clear();
+        // Until the delete runs, the cart it empties is not loaded back
+        List<CartLine> lines = new ArrayList<>();
+        autosave.load(lines);
+        assertTrue(lines.isEmpty());
+
+        drain();
+        assertFalse(file.exists());
+        autosave.flush();
+        drain();
+        // The waiting change was dropped, not written after the delete
+        assertFalse(file.exists());
+        autosave.load(lines);
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    public void changeAfterClear_isWrittenAfterTheDelete() throws Exception {
+        CartAutosave autosave = newAutosave();
+        Cart cart = new Cart();
+        cart.add(pizza(0));
+        autosave.changed(cart.lines());
+        autosave.clear();
+        cart.clear();
+        cart.add(pizza(2));
+        autosave.changed(cart.lines());
+        autosave.flush();
+        drain();
+
+        List<CartLine> lines = loadFromDisk();
+        assertEquals(1, lines.size());
+        assertEquals(2, lines.get(0).crust);
+    }
+
+    @Test
+    public void save_isOnDiskWhenItReturns() throws Exception {
+        CartAutosave autosave = newAutosave();
+        Cart cart = new Cart();
+        cart.add(pizza(0));
+        autosave.changed(cart.lines());
+        cart.add(pizza(1));
+        autosave.save(cart.lines());
+
+        assertEquals(2, loadFromDisk().size());
+        // The debounced change was replaced, not written after the save
+        drain();
+        assertEquals(2, executor.runs.get());
+    }
+
+    @Test
+    public void writeFailingAfterClear_doesNotBringTheCartBack() throws Exception {
+        // A directory where the temporary file goes makes every write fail
+        File temp = new File(file.getPath() + ".tmp");
+        assertTrue(temp.mkdir());
+        CartStore store = new CartStore(file);
+        CartAutosave autosave = newAutosave(store);
+        Cart cart = new Cart();
+        cart.add(pizza(0));
+        autosave.changed(cart.lines());
+        try {
+            // Writes lock the store, so this holds the write after it took the cart
+            synchronized (store) {
+                autosave.flush();
+                while (executor.worker == null || executor.worker.getState() != Thread.State.BLOCKED) {
+                    Thread.sleep(1);
+                }
+                cart.clear();
+                autosave.clear();
+            }
+            drain();
+
+            List<CartLine> lines = new ArrayList<>();
+            autosave.load(lines);
+            assertTrue(lines.isEmpty());
+            autosave.flush();
+            drain();
+            // Only the failed write and the delete ran, the cleared cart was never queued again
+            assertEquals(4, executor.runs.get());
+        } finally {
+            assertTrue(temp.delete());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package gemenielabs.italian.Order;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class CartLineTest {
+
+    // Counts renders so the test can see the display text is cached
+    private static final class CountingLabels implements CartLine.Labels {
+        int renders;
+
+        @Override
+        public String title(int itemId) {
+            renders++;
+            return "PEPPERONI CRAVERS";
+        }
+
+        @Override
+        public String option(int itemId, int kind, int selection) {
+            if (kind == OrderLine.SIZE) {
+                return "large 14\"";
+            }
+            return kind == OrderLine.CRUST ? "thin crust" : "topping " + selection;
+        }
+
+        @Override
+        public String direction(int kind) {
+            return kind == OrderLine.NO ? "no " : "add ";
+        }
+    }
+
+    private static CartLine pizza() {
+        int[] modifiers = {CartLine.modifier(OrderLine.ADD, 4), CartLine.modifier(OrderLine.NO, 12)};
+        return new CartLine(112, 3, 1, modifiers, 2, 1548, "well done", new float[]{280, 9, 4.5f, 510, 36, 2, 13});
+    }
+
+    @Test
+    public void display_isRenderedOnceFromTheData() {
+        CartLine line = pizza();
+        CountingLabels labels = new CountingLabels();
+        assertEquals("PEPPERONI CRAVERS     $15.48"
+                + "\nlarge 14\""
+                + "\nthin crust"
+                + "\nadd topping 4"
+                + "\nno topping 12"
+                + "\nwell done", line.getDisplay(labels).toString());
+        assertSame(line.getDisplay(labels), line.getDisplay(labels));
+        assertEquals(1, labels.renders);
+    }
+
+    @Test
+    public void totals_multiplyTheUnitPrice() {
+        CartLine line = pizza();
+        assertEquals(3096, line.getTotalCents());
+        line.setQuantity(5);
+        assertEquals(7740, line.getTotalCents());
+        assertEquals(13f, line.getNutrition(6), 0f);
+    }
+
+    @Test
+    public void bytes_roundTrip() throws IOException {
+        CartLine copy = CartLine.fromBytes(pizza().toBytes());
+        assertEquals(112, copy.itemId);
+        assertEquals(3, copy.size);
+        assertEquals(1, copy.crust);
+        assertEquals(2, copy.getModifierCount());
+        assertEquals(CartLine.modifier(OrderLine.NO, 12), copy.getModifier(1));
+        assertEquals(2, copy.getQuantity());
+        assertEquals(1548, copy.unitCents);
+        assertEquals("well done", copy.comments);
+        assertEquals(510f, copy.getNutrition(3), 0f);
+
+        CartLine plain = CartLine.fromBytes(new CartLine(123, 0, CartLine.NO_CRUST, new int[0], 1, 899, null, null).toBytes());
+        assertEquals(CartLine.NO_CRUST, plain.crust);
+        assertEquals("", plain.comments);
+        assertFalse(plain.hasNutrition());
+    }
+
+    @Test
+    public void textOnlyLine_showsItsSavedTextAndSurvivesTheStore() throws IOException {
+        String text = "CALZONE     $8.99\nno onions";
+        CartLine line = CartLine.textOnly(text, 899, null);
+        CountingLabels labels = new CountingLabels();
+        assertEquals(text, line.getDisplay(labels).toString());
+        assertEquals(0, labels.renders);
+
+        CartLine copy = CartLine.fromBytes(line.toBytes());
+        assertEquals(CartLine.TEXT_ONLY, copy.itemId);
+        assertEquals(899, copy.getTotalCents());
+        assertEquals(text, copy.getDisplay(labels).toString());
+        assertTrue(line.sameConfiguration(copy));
+    }
+
+    @Test(expected = IOException.class)
+    public void bytes_rejectUnknownVersion() throws IOException {
+        byte[] bytes = pizza().toBytes();
+        bytes[0] = (byte) (CartLine.FORMAT_VERSION + 1);
+        CartLine.fromBytes(bytes);
+    }
+}
@@ -0,0 +1,104 @@
+package gemenielabs.italian.Order;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CartStoreTest {
+
+    private static File newFile() throws IOException {
+        File file = File.createTempFile("cart", ".bin");
+        file.deleteOnExit();
+        new File(file.getPath() + ".tmp").deleteOnExit();
+        assertTrue(file.delete());
+        return file;
+    }
+
+    private static CartLine calzone() {
+        return new CartLine(123, 0, CartLine.NO_CRUST, new int[0], 1, 899, "", null);
+    }
+
+    private static List<CartLine> load(CartStore store) throws IOException {
+        List<CartLine> lines = new ArrayList<>();
+        store.load(lines);
+        return lines;
+    }
+
+    @Test
+    public void save_roundTripsEveryLine() throws IOException {
+        CartStore store = new CartStore(newFile());
+        List<CartLine> lines = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int[] modifiers = {CartLine.modifier(OrderLine.ADD, i % 20), CartLine.modifier(OrderLine.NO, 3)};
+            float[] nutrition = i % 2 == 0 ? null : new float[]{280, 9, 4.5f, 510, 36, 2, 13 + i};
+            lines.add(new CartLine(112, 3, 1, modifiers, 1 + i % 3, 1299 + i, "line " + i, nutrition));
+        }
+        store.write(CartStore.encode(lines));
+
+        List<CartLine> loaded = load(store);
+        assertEquals(lines.size(), loaded.size());
+        for (int i = 0; i < lines.size(); i++) {
+            CartLine line = lines.get(i);
+            CartLine copy = loaded.get(i);
+            assertEquals(line.itemId, copy.itemId);
+            assertEquals(line.crust, copy.crust);
+            assertEquals(line.getQuantity(), copy.getQuantity());
+            assertEquals(line.unitCents, copy.unitCents);
+            assertEquals(line.comments, copy.comments);
+            assertEquals(line.getModifier(0), copy.getModifier(0));
+            assertEquals(line.hasNutrition(), copy.hasNutrition());
+            assertEquals(line.getNutrition(6), copy.getNutrition(6), 0f);
+        }
+
+        // A second write replaces the first rather than adding to it
+        store.write(CartStore.encode(Arrays.asList(calzone())));
+        assertEquals(1, load(store).size());
+        assertEquals(123, load(store).get(0).itemId);
+    }
+
+    @Test
+    public void load_withoutSavedCartAddsNothing() throws IOException {
+        File file = newFile();
+        CartStore store = new CartStore(file);
+        assertTrue(load(store).isEmpty());
+
+        store.write(CartStore.encode(Arrays.asList(calzone())));
+        store.clear();
+        assertFalse(file.exists());
+        assertTrue(load(store).isEmpty());
+    }
+
+    @Test
+    public void interruptedSave_leavesPreviousCart() throws IOException {
+        File file = newFile();
+        CartStore store = new CartStore(file);
+        store.write(CartStore.encode(Arrays.asList(calzone())));
+        // A save killed before its rename leaves only a partial temporary file
+        try (FileOutputStream partial = new FileOutputStream(file.getPath() + ".tmp")) {
+            partial.write(new byte[]{0x43, 0x41});
+        }
+        List<CartLine> lines = load(new CartStore(file));
+        assertEquals(1, lines.size());
+        assertEquals(899, lines.get(0).unitCents);
+    }
+
+    @Test(expected = IOException.class)
+    public void load_rejectsDamagedFile() throws IOException {
+        File file = newFile();
+        CartStore store = new CartStore(file);
+        store.write(CartStore.encode(Arrays.asList(calzone())));
+        try (RandomAccessFile damaged = new RandomAccessFile(file, "rw")) {
+            damaged.seek(12);
+            damaged.write('X');
+        }
+        load(store);
+    }
+}
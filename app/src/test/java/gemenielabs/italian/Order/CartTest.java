@@ -0,0 +1,105 @@
+package gemenielabs.italian.Order;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CartTest {
+
+    private static CartLine pizza(int crust, String comments, int... toppings) {
+        int[] modifiers = new int[toppings.length];
+        for (int i = 0; i < toppings.length; i++) {
+            modifiers[i] = CartLine.modifier(OrderLine.ADD, toppings[i]);
+        }
+        return new CartLine(112, 3, crust, modifiers, 1, 1299, comments, null);
+    }
+
+    @Test
+    public void add_mergesSameConfigurationWhateverTheToppingOrder() {
+        Cart cart = new Cart();
+        assertEquals(0, cart.add(pizza(1, "", 4, 9)));
+        assertEquals(0, cart.add(pizza(1, "", 9, 4)));
+        assertEquals(0, cart.add(pizza(1, "", 4, 9)));
+        assertEquals(1, cart.size());
+        assertEquals(3, cart.get(0).getQuantity());
+        assertEquals(3 * 1299, cart.get(0).getTotalCents());
+
+        // Crust, toppings and comments each make a different line
+        assertEquals(1, cart.add(pizza(2, "", 4, 9)));
+        assertEquals(2, cart.add(pizza(1, "", 4)));
+        assertEquals(3, cart.add(pizza(1, "well done", 4, 9)));
+        assertEquals(4, cart.size());
+    }
+
+    @Test
+    public void configurationHash_ignoresQuantityAndOrder() {
+        CartLine line = pizza(1, "", 4, 9);
+        CartLine twin = pizza(1, "", 9, 4);
+        twin.setQuantity(5);
+        assertEquals(line.configurationHash(), twin.configurationHash());
+        assertTrue(line.sameConfiguration(twin));
+        assertNotEquals(line.configurationHash(), pizza(1, "", 4, 10).configurationHash());
+        assertNotEquals(line.configurationHash(), pizza(0, "", 4, 9).configurationHash());
+    }
+
+    @Test
+    public void remove_keepsIndexPointingAtMovedLines() {
+        Cart cart = new Cart();
+        cart.add(pizza(0, ""));
+        cart.add(pizza(1, ""));
+        cart.add(pizza(2, ""));
+        cart.remove(0);
+        // The thin crust moved from 1 to 0 and still merges there
+        assertEquals(0, cart.add(pizza(1, "")));
+        assertEquals(1, cart.add(pizza(2, "")));
+        assertEquals(2, cart.get(0).getQuantity());
+        // A removed configuration comes back as a new line
+        assertEquals(2, cart.add(pizza(0, "")));
+        assertEquals(1, cart.get(2).getQuantity());
+
+        cart.clear();
+        assertTrue(cart.isEmpty());
+        assertEquals(0, cart.add(pizza(1, "")));
+    }
+
+    @Test
+    public void totals_followEveryChange() {
+        Cart cart = new Cart();
+        float[] nutrition = {280, 9, 4.5f, 510, 36, 2, 13};
+        cart.add(new CartLine(112, 3, 1, new int[0], 2, 1299, "", nutrition));
+        cart.add(new CartLine(123, 0, CartLine.NO_CRUST, new int[0], 1, 899, "", null));
+        assertEquals(2 * 1299 + 899, cart.getTotalCents());
+        assertEquals(560f, cart.getNutrition(0), 0.001f);
+
+        cart.add(new CartLine(112, 3, 1, new int[0], 1, 1299, "", nutrition));
+        cart.step(1, 1);
+        assertEquals(3 * 1299 + 2 * 899, cart.getTotalCents());
+        assertEquals(39f, cart.getNutrition(6), 0.001f);
+
+        cart.remove(0);
+        assertEquals(2 * 899, cart.getTotalCents());
+        assertEquals(0f, cart.getNutrition(0), 0f);
+        cart.remove(0);
+        assertEquals(0, cart.getTotalCents());
+    }
+
+    @Test
+    public void step_staysWithinQuantityLimits() {
+        Cart cart = new Cart();
+        cart.add(pizza(1, ""));
+        assertFalse(cart.step(0, -1));
+        assertTrue(cart.step(0, 1));
+        assertEquals(2, cart.get(0).getQuantity());
+        cart.get(0).setQuantity(Cart.MAX_QUANTITY);
+        assertFalse(cart.step(0, 1));
+        // Merging never goes past the limit either, the cart is left as it was
+        long total = cart.getTotalCents();
+        assertEquals(Cart.NOT_ADDED, cart.add(pizza(1, "")));
+        assertEquals(Cart.MAX_QUANTITY, cart.get(0).getQuantity());
+        assertEquals(total, cart.getTotalCents());
+        assertEquals(1, cart.size());
+        CartLine tooMany = new CartLine(112, 3, 2, new int[0], Cart.MAX_QUANTITY + 1, 1299, "", null);
+        assertEquals(Cart.NOT_ADDED, cart.add(tooMany));
+        assertEquals(1, cart.size());
+    }
+}
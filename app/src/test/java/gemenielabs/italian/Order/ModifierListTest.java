@@ -0,0 +1,56 @@
+package gemenielabs.italian.Order;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ModifierListTest {
+
+    @Test
+    public void add_growsPastInitialCapacity() {
+        ModifierList list = new ModifierList(2);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, list.add(i % OrderLine.KIND_COUNT, i, i * 10));
+        }
+        assertEquals(1000, list.size());
+        assertTrue(list.capacity() >= 1000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % OrderLine.KIND_COUNT, list.getKind(i));
+            assertEquals(i, list.getPrice(i));
+            assertEquals(i * 10, list.getTextStart(i));
+            assertEquals(0, list.getSelection(i));
+            assertNull(list.getLabel(i));
+        }
+    }
+
+    @Test
+    public void select_updatesOneRow() {
+        ModifierList list = new ModifierList();
+        list.add(OrderLine.ADD, 69, 0);
+        list.add(OrderLine.NO, 0, 0);
+        list.select(1, 4, "Onions");
+        assertEquals(4, list.getSelection(1));
+        assertEquals("Onions", list.getLabel(1));
+        assertEquals(0, list.getSelection(0));
+        assertNull(list.getLabel(0));
+    }
+
+    @Test
+    public void shiftText_movesLaterRowsOnly() {
+        ModifierList list = new ModifierList();
+        list.add(OrderLine.SIZE, 0, 0);
+        list.add(OrderLine.ADD, 0, 5);
+        list.add(OrderLine.ADD, 0, 9);
+        list.shiftText(1, 3);
+        assertEquals(0, list.getTextStart(0));
+        assertEquals(8, list.getTextStart(1));
+        assertEquals(12, list.getTextStart(2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_rejectsRowsPastSize() {
+        ModifierList list = new ModifierList(16);
+        list.add(OrderLine.ADD, 69, 0);
+        list.getPrice(1);
+    }
+}
@@ -0,0 +1,179 @@
+package gemenielabs.italian.Order;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuCatalogReader;
+import gemenielabs.italian.Data.MenuItem;
+
+import static org.junit.Assert.*;
+
+public class OrderLineTest {
+
+    private static final File COMPILED_CATALOG = new File("build/generated/catalog/assets/" + MenuCatalog.ASSET);
+
+    private static MenuCatalog catalog;
+    private static PricingEngine pricing;
+    private static final String[] DIRECTIONS = new String[OrderLine.KIND_COUNT];
+
+    @BeforeClass
+    public static void loadCatalog() throws IOException {
+        try (InputStream in = new FileInputStream(COMPILED_CATALOG)) {
+            catalog = MenuCatalogReader.read(in, (name, type) -> 0);
+        }
+        pricing = new PricingEngine(catalog);
+        Arrays.fill(DIRECTIONS, " ");
+        DIRECTIONS[OrderLine.ADD] = "ADD ";
+        DIRECTIONS[OrderLine.NO] = "NO ";
+        DIRECTIONS[OrderLine.LEFT] = "Left ";
+        DIRECTIONS[OrderLine.RIGHT] = "Right ";
+    }
+
+    private static OrderLine newPizza() {
+        OrderLine line = new OrderLine(catalog.getItemById(101), pricing, DIRECTIONS);
+        line.addRow(OrderLine.SIZE);
+        line.addRow(OrderLine.CRUST);
+        line.select(0, 0, "Mini 7\"");
+        line.select(1, 0, "Original Crust");
+        return line;
+    }
+
+    @Test
+    public void toCartLine_keepsSelectionsAsData() {
+        OrderLine line = newPizza();
+        line.select(1, 2, "Sicilian Crust");
+        line.select(line.addRow(OrderLine.ADD), 3, "Italian Sausage");
+        line.addRow(OrderLine.NO);
+        CartLine cartLine = line.toCartLine("cut in squares");
+        assertEquals(101, cartLine.itemId);
+        assertEquals(0, cartLine.size);
+        assertEquals(2, cartLine.crust);
+        // The NO row was never selected
+        assertEquals(1, cartLine.getModifierCount());
+        assertEquals(OrderLine.ADD, CartLine.kindOf(cartLine.getModifier(0)));
+        assertEquals(3, CartLine.selectionOf(cartLine.getModifier(0)));
+        assertEquals(1, cartLine.getQuantity());
+        assertEquals(line.getTotal(), cartLine.unitCents);
+        assertEquals("cut in squares", cartLine.comments);
+        assertFalse(cartLine.hasNutrition());
+    }
+
+    @Test
+    public void summary_rendersEachRow() {
+        OrderLine line = newPizza();
+        line.select(line.addRow(OrderLine.ADD), 3, "Pepperoni");
+        line.select(line.addRow(OrderLine.NO), 1, "Onions");
+        assertEquals(OrderLine.SUMMARY_HEADER
+                + "\n Mini 7\"     $7.99"
+                + "\n Original Crust"
+                + "\nADD Pepperoni     $0.69"
+                + "\nNO Onions", line.getSummary().toString());
+        assertEquals(799 + 69, line.getTotal());
+    }
+
+    @Test
+    public void changingOneRow_onlyReplacesItsSegment() {
+        OrderLine line = newPizza();
+        line.select(line.addRow(OrderLine.ADD), 0, "Bacon");
+        line.select(line.addRow(OrderLine.NO), 0, "Olives");
+        line.select(1, 2, "Sicilian Crust");
+        assertEquals(OrderLine.SUMMARY_HEADER
+                + "\n Mini 7\"     $7.99"
+                + "\n Sicilian Crust     $1.00"
+                + "\nADD Bacon     $0.69"
+                + "\nNO Olives", line.getSummary().toString());
+        assertEquals(799 + 100 + 69, line.getTotal());
+    }
+
+    @Test
+    public void sizeChange_repricesToppings() {
+        OrderLine line = newPizza();
+        line.select(line.addRow(OrderLine.ADD), 0, "Bacon");
+        line.addRow(OrderLine.LEFT);
+        line.addRow(OrderLine.RIGHT);
+        line.select(0, 4, "Crazy 18\"");
+        assertEquals(225, line.getPrice(2));
+        assertEquals(225, line.getPrice(4));
+        assertTrue(line.getSummary().toString().contains("\nADD Bacon     $2.25"));
+        assertEquals(pricing.linePrice(line.item, 4, 0, 3), line.getTotal());
+    }
+
+    @Test
+    public void runningTotal_matchesFullPrice() {
+        MenuItem mobster = catalog.getItemById(101);
+        OrderLine line = newPizza();
+        int toppings = 0;
+        for (int i = 0; i < 200; i++) {
+            int kind = i % 3 == 0 ? OrderLine.NO : OrderLine.ADD;
+            line.select(line.addRow(kind), i % 26, "Topping " + i);
+            if (kind == OrderLine.ADD) {
+                toppings++;
+            }
+            int size = i % 5;
+            int crust = i % 3;
+            line.select(0, size, "Size " + size);
+            line.select(1, crust, "Crust " + crust);
+            assertEquals(pricing.linePrice(mobster, size, crust, toppings), line.getTotal());
+        }
+    }
+
+    @Test
+    public void newToppingRow_warnsForItsFirstChoice() {
+        OrderLine line = newPizza();
+        assertEquals("Pepperoni", catalog.getAddOns().get(0));
+        int row = line.addRow(OrderLine.ADD);
+        assertEquals(OrderLine.NO_SELECTION, line.getSelection(row));
+        // The spinner's first report is the preselected Pepperoni, which is pork
+        assertTrue(line.conflicts(row, 0, catalog, MenuItem.PORK));
+        line.select(row, 0, "Pepperoni");
+        // Rebinding to the same choice isn't news, and avoiding nothing never warns
+        assertFalse(line.conflicts(row, 0, catalog, MenuItem.PORK));
+        assertFalse(line.conflicts(row, 0, catalog, 0));
+        // Leaving a topping off never conflicts
+        int no = line.addRow(OrderLine.NO);
+        assertFalse(line.conflicts(no, 0, catalog, MenuItem.PORK));
+    }
+
+    @Test
+    public void thousandModifiers_priceLikeOne() {
+        OrderLine line = newPizza();
+        for (int i = 0; i < 1000; i++) {
+            int kind = i % 4 == 0 ? OrderLine.LEFT : i % 4 == 1 ? OrderLine.RIGHT : OrderLine.ADD;
+            line.select(line.addRow(kind), i % 26, "Topping " + i);
+        }
+        assertEquals(1002, line.getRowCount());
+        assertEquals(pricing.linePrice(line.item, 0, 0, 1000), line.getTotal());
+
+        line.select(0, 3, "Large 14\"");
+        assertEquals(pricing.linePrice(line.item, 3, 0, 1000), line.getTotal());
+        assertEquals(1999 + 1000 * 225, line.getTotal());
+        assertEquals(999 % 26, line.getSelection(1001));
+        assertTrue(line.getSummary().toString().endsWith("\nADD Topping 999     $2.25"));
+    }
+
+    @Test
+    public void saladToppings_doNotFollowSize() {
+        OrderLine line = new OrderLine(catalog.getItemById(501), pricing, DIRECTIONS);
+        line.addRow(OrderLine.SIZE);
+        line.select(0, 0, "Small");
+        line.select(line.addRow(OrderLine.ADD), 0, "Bacon");
+        line.select(0, 1, "Large");
+        assertEquals(69, line.getPrice(1));
+        assertEquals(799 + 69, line.getTotal());
+    }
+
+    @Test
+    public void formatPrice_padsCents() {
+        assertEquals("$0.05", OrderLine.formatPrice(5));
+        assertEquals("$0.69", OrderLine.formatPrice(69));
+        assertEquals("$12.00", OrderLine.formatPrice(1200));
+        assertEquals("$24.99", OrderLine.formatPrice(2499));
+    }
+}
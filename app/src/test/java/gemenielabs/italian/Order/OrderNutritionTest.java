@@ -0,0 +1,122 @@
+package gemenielabs.italian.Order;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuCatalogReader;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Data.NutritionTable;
+
+import static org.junit.Assert.*;
+
+public class OrderNutritionTest {
+
+    private static final File COMPILED_CATALOG = new File("build/generated/catalog/assets/" + MenuCatalog.ASSET);
+
+    private static MenuCatalog catalog;
+    private static PricingEngine pricing;
+    private static final String[] DIRECTIONS = new String[OrderLine.KIND_COUNT];
+
+    @BeforeClass
+    public static void loadCatalog() throws IOException {
+        try (InputStream in = new FileInputStream(COMPILED_CATALOG)) {
+            catalog = MenuCatalogReader.read(in, (name, type) -> 0);
+        }
+        pricing = new PricingEngine(catalog);
+        Arrays.fill(DIRECTIONS, " ");
+    }
+
+    private static OrderLine newLine(MenuItem item, int size) {
+        OrderLine line = new OrderLine(item, pricing, new OrderNutrition(catalog, item), DIRECTIONS);
+        line.addRow(OrderLine.SIZE);
+        line.select(0, size, "size");
+        return line;
+    }
+
+    private static float addOn(int topping, int column) {
+        return catalog.getAddOnNutrition().get(topping, column);
+    }
+
+    @Test
+    public void addOns_followToppingsArrayOrder() {
+        assertEquals(catalog.getAddOns().size(), catalog.getAddOnNutrition().size());
+        assertEquals("Shrimp", catalog.getAddOns().get(5));
+        assertEquals(40f, addOn(0, NutritionTable.CALORIES), 0f);
+    }
+
+    @Test
+    public void toppings_addPortionsScaledBySize() {
+        MenuItem mobster = catalog.getItemById(101);
+        OrderLine line = newLine(mobster, 2);
+        OrderNutrition nutrition = line.getNutrition();
+        assertTrue(nutrition.isAvailable());
+        assertEquals(370f, nutrition.get(NutritionTable.CALORIES), 0.01f);
+
+        int add = line.addRow(OrderLine.ADD);
+        line.select(add, 0, "Pepperoni");
+        int left = line.addRow(OrderLine.LEFT);
+        line.select(left, 24, "1/2 Extra Cheese");
+        assertEquals(370f + 40f + 25f, nutrition.get(NutritionTable.CALORIES), 0.01f);
+
+        // Changing a row swaps its topping, it does not add another
+        line.select(add, 5, "Shrimp");
+        assertEquals(370f + 10f + 25f, nutrition.get(NutritionTable.CALORIES), 0.01f);
+
+        int no = line.addRow(OrderLine.NO);
+        line.select(no, 0, "Pepperoni");
+        assertEquals(370f + 10f + 25f - 40f, nutrition.get(NutritionTable.CALORIES), 0.01f);
+
+        line.select(0, 3, "Large 14\"");
+        assertEquals((370f + 10f + 25f - 40f) * mobster.getSizeScale(3),
+                nutrition.get(NutritionTable.CALORIES), 0.01f);
+        assertEquals(1.35f, mobster.getSizeScale(3), 0f);
+    }
+
+    @Test
+    public void incrementalTotals_matchRecomputedTotals() {
+        MenuItem mobster = catalog.getItemById(101);
+        OrderLine line = newLine(mobster, 2);
+        int[] kinds = {OrderLine.ADD, OrderLine.NO, OrderLine.LEFT, OrderLine.RIGHT};
+        Random random = new Random(42);
+        for (int i = 0; i < 40; i++) {
+            int row = line.addRow(kinds[random.nextInt(kinds.length)]);
+            line.select(row, random.nextInt(26), "topping");
+        }
+        for (int i = 0; i < 1000; i++) {
+            int row = random.nextInt(line.getRowCount());
+            if (row == 0) {
+                line.select(0, random.nextInt(5), "size");
+            } else {
+                line.select(row, random.nextInt(26), "topping");
+            }
+        }
+
+        NutritionTable table = catalog.getNutritionTable();
+        for (int column = 0; column < NutritionTable.COLUMN_COUNT; column++) {
+            float expected = table.get(mobster.nutritionRow, column);
+            for (int row = 1; row < line.getRowCount(); row++) {
+                expected += OrderNutrition.portions(line.getKind(row)) * addOn(line.getSelection(row), column);
+            }
+            expected = Math.max(0f, expected * mobster.getSizeScale(line.getSize()));
+            assertEquals(expected, line.getNutrition().get(column), 0.05f);
+        }
+    }
+
+    @Test
+    public void itemsWithoutSizesOrRecords() {
+        MenuItem sandwich = catalog.getItems("sandwiches").get(0);
+        OrderLine line = newLine(sandwich, 0);
+        assertEquals(660f, line.getNutrition().get(NutritionTable.CALORIES), 0f);
+
+        MenuItem unmatched = catalog.getItemsWithoutNutrition().get(0);
+        assertFalse(new OrderNutrition(catalog, unmatched).isAvailable());
+    }
+}
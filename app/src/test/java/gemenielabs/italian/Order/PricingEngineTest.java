@@ -0,0 +1,86 @@
+package gemenielabs.italian.Order;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuCatalogReader;
+import gemenielabs.italian.Data.MenuItem;
+
+import static org.junit.Assert.*;
+
+public class PricingEngineTest {
+
+    // Written by the compileMenuCatalog task, which runs before the unit tests compile
+    private static final File COMPILED_CATALOG = new File("build/generated/catalog/assets/" + MenuCatalog.ASSET);
+
+    private static MenuCatalog catalog;
+    private static PricingEngine pricing;
+
+    @BeforeClass
+    public static void loadCatalog() throws IOException {
+        try (InputStream in = new FileInputStream(COMPILED_CATALOG)) {
+            catalog = MenuCatalogReader.read(in, (name, type) -> 0);
+        }
+        pricing = new PricingEngine(catalog);
+    }
+
+    @Test
+    public void pizza_sizeCrustAndToppings() {
+        MenuItem mobster = catalog.getItemById(101);
+        assertEquals(5, pricing.getSizeCount(mobster));
+        assertEquals(1749, pricing.basePrice(mobster, 2));
+        assertEquals(199, pricing.toppingPrice(mobster, 2));
+        // Medium, Sicilian crust, three extra toppings
+        assertEquals(1749 + 100 + 3 * 199, pricing.linePrice(mobster, 2, 2, 3));
+        assertEquals(799, pricing.linePrice(mobster, 0, 0, 0));
+    }
+
+    @Test
+    public void createYourOwn_usesItsOwnTable() {
+        MenuItem custom = catalog.getItemById(122);
+        assertEquals(349, pricing.basePrice(custom, 0));
+        assertEquals(1599, pricing.basePrice(custom, 4));
+    }
+
+    @Test
+    public void calzone_ignoresCrustAndChargesFlatToppings() {
+        MenuItem calzone = catalog.getItemById(123);
+        assertEquals(2, pricing.getSizeCount(calzone));
+        assertEquals(1499, pricing.linePrice(calzone, 1, 2, 0));
+        assertEquals(69, pricing.toppingPrice(calzone, 1));
+    }
+
+    @Test
+    public void columnItems_readOneTablePerSize() {
+        MenuItem wings = catalog.getItemById(301);
+        assertEquals(3, pricing.getSizeCount(wings));
+        assertEquals(599, pricing.basePrice(wings, 0));
+        assertEquals(1699, pricing.basePrice(wings, 2));
+        assertEquals(999, pricing.basePrice(catalog.getItemById(302), 1));
+        assertEquals(729, pricing.basePrice(catalog.getItemById(204), 0));
+    }
+
+    @Test
+    public void salads_chargeSmallestToppingAtAnySize() {
+        MenuItem salad = catalog.getItemById(501);
+        assertEquals(799 + 2 * 69, pricing.linePrice(salad, 1, 0, 2));
+    }
+
+    @Test
+    public void itemsWithoutPrice_costNothing() {
+        assertEquals(0, pricing.linePrice(catalog.getItemById(605), 0, 0, 0));
+    }
+
+    @Test
+    public void linePrice_doesNotOverflowWithManyToppings() {
+        MenuItem mobster = catalog.getItemById(101);
+        int toppings = Integer.MAX_VALUE / 100;
+        assertEquals(2399 + 100 + (long) toppings * 225, pricing.linePrice(mobster, 4, 2, toppings));
+    }
+}
@@ -0,0 +1,146 @@
+package gemenielabs.italian.Search;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuCatalogReader;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Data.NutritionTable;
+import gemenielabs.italian.Order.PricingEngine;
+
+import static org.junit.Assert.*;
+
+public class MenuFilterIndexTest {
+
+    private static final File COMPILED_CATALOG = new File("build/generated/catalog/assets/" + MenuCatalog.ASSET);
+
+    private static MenuCatalog catalog;
+    private static MenuFilterIndex index;
+
+    @BeforeClass
+    public static void buildIndex() throws IOException {
+        try (InputStream in = new FileInputStream(COMPILED_CATALOG)) {
+            catalog = MenuCatalogReader.read(in, (name, type) -> 0);
+        }
+        index = new MenuFilterIndex(catalog);
+    }
+
+    private static float value(MenuItem item, int column) {
+        int row = item.nutritionRow;
+        NutritionTable table = catalog.getNutritionTable();
+        if (row == NutritionTable.NOT_FOUND || table.get(row, NutritionTable.CALORIES) <= 0) {
+            return Float.NaN;
+        }
+        return table.get(row, column);
+    }
+
+    @Test
+    public void range_matchesScanOfEveryItem() {
+        BitSet underLimit = new BitSet();
+        // Left over from an earlier use, the range replaces it
+        underLimit.set(0, catalog.size());
+        index.range(NutritionTable.CALORIES, 0, Math.nextDown(400f), underLimit);
+        for (int i = 0; i < catalog.size(); i++) {
+            float calories = value(catalog.getItem(i), NutritionTable.CALORIES);
+            assertEquals(catalog.getItem(i).title, calories < 400, underLimit.get(i));
+        }
+        assertTrue(underLimit.cardinality() > 0);
+        BitSet none = new BitSet();
+        index.range(NutritionTable.SODIUM, -2, -1, none);
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    public void combinedFilters_intersectWithinCategory() {
+        BitSet matches = new BitSet();
+        // Left over from an earlier use, refilling the set must drop it
+        matches.set(0, catalog.size());
+        index.category("pastas", matches);
+        BitSet range = new BitSet();
+        index.range(NutritionTable.PROTEIN, 30, Float.MAX_VALUE, range);
+        matches.and(range);
+        index.range(NutritionTable.SODIUM, 0, Math.nextDown(2000f), range);
+        matches.and(range);
+        List<String> expected = new ArrayList<>();
+        for (MenuItem item : catalog.getItems("pastas")) {
+            if (value(item, NutritionTable.PROTEIN) >= 30 && value(item, NutritionTable.SODIUM) < 2000) {
+                expected.add(item.title);
+            }
+        }
+        List<String> titles = new ArrayList<>();
+        for (MenuItem item : index.select(matches, MenuFilterIndex.MENU_ORDER, false)) {
+            titles.add(item.title);
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, titles);
+    }
+
+    @Test
+    public void select_sortsByValueWithMissingValuesLast() {
+        BitSet everything = new BitSet();
+        everything.set(0, catalog.size());
+        List<MenuItem> byProtein = index.select(everything, NutritionTable.PROTEIN, true);
+        // Selecting leaves the matches as they were
+        assertEquals(catalog.size(), everything.cardinality());
+        assertEquals(catalog.size(), byProtein.size());
+        boolean missing = false;
+        for (int i = 1; i < byProtein.size(); i++) {
+            float previous = value(byProtein.get(i - 1), NutritionTable.PROTEIN);
+            float current = value(byProtein.get(i), NutritionTable.PROTEIN);
+            if (Float.isNaN(current)) {
+                missing = true;
+                continue;
+            }
+            assertFalse("values after an item without one", missing);
+            assertTrue(previous >= current);
+            // Equal values keep menu order
+            if (previous == current) {
+                assertTrue(byProtein.get(i - 1).index < byProtein.get(i).index);
+            }
+        }
+        assertTrue(missing);
+    }
+
+    @Test
+    public void select_sortsByBasePrice() {
+        PricingEngine pricing = PricingEngine.get(catalog);
+        BitSet pizza = new BitSet();
+        index.category("pizza", pizza);
+        List<MenuItem> byPrice = index.select(pizza, MenuFilterIndex.PRICE, false);
+        assertEquals(catalog.getItems("pizza").size(), byPrice.size());
+        for (int i = 1; i < byPrice.size(); i++) {
+            assertTrue(pricing.basePrice(byPrice.get(i - 1), 0) <= pricing.basePrice(byPrice.get(i), 0));
+        }
+    }
+
+    @Test
+    public void exclude_dropsItemsWithAvoidedAllergens() {
+        BitSet matches = new BitSet();
+        index.category("pizza", matches);
+        index.exclude(matches, MenuItem.MEAT);
+        assertTrue(matches.get(catalog.getItemById(111).index));
+        assertFalse(matches.get(catalog.getItemById(101).index));
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            assertFalse(catalog.getItem(i).contains(MenuItem.MEAT));
+        }
+
+        BitSet everything = new BitSet();
+        everything.set(0, catalog.size());
+        index.exclude(everything, 0);
+        assertEquals(catalog.size(), everything.cardinality());
+        index.exclude(everything, MenuItem.GLUTEN | MenuItem.DAIRY);
+        for (int i = everything.nextSetBit(0); i >= 0; i = everything.nextSetBit(i + 1)) {
+            assertEquals(0, catalog.getItem(i).allergens & (MenuItem.GLUTEN | MenuItem.DAIRY));
+        }
+        assertTrue(everything.cardinality() > 0);
+    }
+}
@@ -0,0 +1,123 @@
+package gemenielabs.italian.Search;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import gemenielabs.italian.Data.MenuCatalog;
+import gemenielabs.italian.Data.MenuCatalogReader;
+import gemenielabs.italian.Data.MenuItem;
+import gemenielabs.italian.Data.TextNormalizer;
+
+import static org.junit.Assert.*;
+
+public class MenuSearchIndexTest {
+
+    private static final File COMPILED_CATALOG = new File("build/generated/catalog/assets/" + MenuCatalog.ASSET);
+
+    private static MenuSearchIndex index;
+
+    @BeforeClass
+    public static void buildIndex() throws IOException {
+        MenuCatalog catalog;
+        try (InputStream in = new FileInputStream(COMPILED_CATALOG)) {
+            catalog = MenuCatalogReader.read(in, (name, type) -> 0);
+        }
+        index = new MenuSearchIndex(catalog);
+    }
+
+    private static Set<String> categories(List<MenuItem> results) {
+        Set<String> categories = new HashSet<>();
+        for (MenuItem item : results) {
+            categories.add(item.category);
+        }
+        return categories;
+    }
+
+    @Test
+    public void normalize_foldsCaseAccentsAndPunctuation() {
+        assertEquals("toasted jalapeno cheese ravioli", TextNormalizer.normalize("  Toasted Jalapeño, Cheese-Ravioli! "));
+        assertEquals("", TextNormalizer.normalize(" ,. "));
+    }
+
+    @Test
+    public void titleMatches_rankFirst() {
+        List<MenuItem> results = index.search("alfredo");
+        assertFalse(results.isEmpty());
+        assertTrue(results.get(0).title.toLowerCase().contains("alfredo"));
+        assertTrue(categories(results).contains("pastas"));
+        assertTrue(categories(results).contains("pizza"));
+    }
+
+    @Test
+    public void prefix_returnsResultsWhileTyping() {
+        for (String typed : new String[]{"p", "pe", "pep", "pepp", "peppe", "pepper", "pepperoni"}) {
+            assertFalse(typed, index.search(typed).isEmpty());
+        }
+        assertEquals("Pepperoni Cravers", index.search("pepperoni").get(0).title);
+    }
+
+    @Test
+    public void toppings_matchAccentedDescriptionsAndCustomizableItems() {
+        List<MenuItem> results = index.search("jalap");
+        Set<String> titles = new HashSet<>();
+        for (MenuItem item : results) {
+            titles.add(item.title);
+        }
+        assertTrue(titles.contains("Toasted Jalapeño Cheese Ravioli"));
+        assertTrue(titles.contains("Create Your Own"));
+        // Items that list the topping come before the ones that could add it
+        assertEquals("Toasted Jalapeño Cheese Ravioli", results.get(0).title);
+    }
+
+    @Test
+    public void everyWord_mustMatch() {
+        List<MenuItem> results = index.search("chicken bacon ranch");
+        assertFalse(results.isEmpty());
+        assertEquals("Chicken Bacon Ranch", results.get(0).title);
+        for (MenuItem item : results) {
+            String text = (item.title + " " + item.description).toLowerCase();
+            assertTrue(item.title, text.contains("chicken") || item.has(MenuItem.TOPPINGS));
+        }
+        assertTrue(index.search("pepperoni zzzz").isEmpty());
+    }
+
+    @Test
+    public void typos_matchThroughTrigrams() {
+        List<MenuItem> results = index.search("fetucini");
+        assertFalse(results.isEmpty());
+        assertTrue(results.get(0).title.toLowerCase().contains("fettuccini"));
+        assertFalse(index.search("spagetti").isEmpty());
+    }
+
+    @Test
+    public void emptyQuery_returnsNothing() {
+        assertTrue(index.search("").isEmpty());
+        assertTrue(index.search("  ").isEmpty());
+    }
+
+    @Test
+    public void keystroke_staysUnderOneMillisecond() {
+        String query = "chicken alfredo pizza";
+        for (int warmup = 0; warmup < 2000; warmup++) {
+            index.search(query.substring(0, 1 + warmup % query.length()));
+        }
+        long start = System.nanoTime();
+        int keystrokes = 0;
+        for (int round = 0; round < 100; round++) {
+            for (int length = 1; length <= query.length(); length++) {
+                index.search(query.substring(0, length));
+                keystrokes++;
+            }
+        }
+        long perKeystroke = (System.nanoTime() - start) / keystrokes;
+        assertTrue("took " + perKeystroke + "ns", perKeystroke < 1000000);
+    }
+}